@@ -103,6 +103,13 @@ public enum AcTerm implements Term, AlternativeNames {
   private static final String PREFIX = "ac";
   private static final String NS = "http://rs.tdwg.org/ac/terms/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
+
+  AcTerm() {
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
+  }
 
   @Override
   public String toString() {
@@ -133,4 +140,14 @@ public enum AcTerm implements Term, AlternativeNames {
   public URI namespace() {
     return NS_URI;
   }
+
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
 }
@@ -108,12 +108,16 @@ public enum AcefTerm implements Term, AlternativeNames {
   private static final String NS = "https://terms.catalogueoflife.org/acef/";
   private static final URI NS_URI = URI.create(NS);
 
+  private final String qualifiedName;
+  private final String prefixedName;
   private final boolean isClass;
   private final String[] alternatives;
 
   AcefTerm(boolean isClass, String ... alternatives) {
     this.alternatives = alternatives;
     this.isClass = isClass;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 
   AcefTerm(String ... alternatives) {
@@ -150,4 +154,14 @@ public enum AcefTerm implements Term, AlternativeNames {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reverse index of all names registered for a term, built once from the hash tables of an index.
+ * All names are kept in a single string pool with the names of each term next to each other
+ * in the order they were registered, and every term refers to its range of the pool as an immutable list.
+ */
+final class AliasIndex {
+
+  private final Map<Term, List<String>> aliases;
+
+  private AliasIndex(Map<Term, List<String>> aliases) {
+    this.aliases = aliases;
+  }
+
+  static AliasIndex build(TermHashTable... tables) {
+    // count names per term
+    Map<Term, int[]> ranges = new IdentityHashMap<>();
+    int size = 0;
+    for (TermHashTable table : tables) {
+      size += table.size();
+      table.forEach((key, term) -> ranges.computeIfAbsent(term, t -> new int[2])[1]++);
+    }
+    // assign ranges of the pool
+    int offset = 0;
+    for (int[] range : ranges.values()) {
+      range[0] = offset;
+      offset += range[1];
+      range[1] = range[0];
+    }
+    // fill the pool, using the end of each range as the next free slot
+    String[] pool = new String[size];
+    for (TermHashTable table : tables) {
+      table.forEach((key, term) -> pool[ranges.get(term)[1]++] = key);
+    }
+    List<String> all = Arrays.asList(pool);
+    Map<Term, List<String>> aliases = new IdentityHashMap<>(ranges.size());
+    ranges.forEach((term, range) -> aliases.put(term, Collections.unmodifiableList(all.subList(range[0], range[1]))));
+    return new AliasIndex(aliases);
+  }
+
+  /**
+   * @return all names of the term in the order they were registered or an empty list for unknown terms
+   */
+  List<String> get(Term term) {
+    List<String> names = aliases.get(term);
+    return names != null ? names : Collections.emptyList();
+  }
+}
@@ -17,24 +17,33 @@ package org.gbif.dwc.terms;
 
 import java.io.Serializable;
 import java.net.URI;
+import java.util.Arrays;
 
 public class BibTexTerm implements Term, Serializable {
 
+  private static final long serialVersionUID = 8368466972488214855L;
+
   public static final String PREFIX = "bib";
   public static final String NS = "http://bibtex.org/";
   public static final URI NS_URI = URI.create(NS);
 
-  public static final Term CLASS_TERM = new BibTexTerm("BibTeX", true);
+  private static final TermInterner<BibTexTerm> INTERNER = new TermInterner<>();
+
+  public static final Term CLASS_TERM = intern(new BibTexTerm("BibTeX", true));
 
   private final String name;
   private final boolean isClass;
+  // derived from the name on first use
+  private transient String qualifiedName;
+  private transient String prefixedName;
+  private transient int hash;
 
   public static BibTexTerm buildFromURI(String uri) {
     if (uri == null || !uri.startsWith(NS) || uri.equalsIgnoreCase(NS)) {
       throw new IllegalArgumentException("The qualified name URI is required and must be in the bibtex.org domain");
     }
     String name = uri.replaceFirst(NS, "");
-    return new BibTexTerm(name, false);
+    return intern(new BibTexTerm(name, false));
   }
 
   public static BibTexTerm buildFromPrefix(String prefixedTerm) {
@@ -42,7 +51,7 @@ public class BibTexTerm implements Term, Serializable {
       throw new IllegalArgumentException("The prefixed name is required and must start with " + PREFIX);
     }
     String name = prefixedTerm.replaceFirst(PREFIX+":", "");
-    return new BibTexTerm(name, false);
+    return intern(new BibTexTerm(name, false));
   }
 
   public BibTexTerm(String name) {
@@ -54,6 +63,24 @@ public class BibTexTerm implements Term, Serializable {
     this.isClass = isClass;
   }
 
+  /**
+   * @return the canonical instance of all BibTeX terms with the same name and class flag.
+   * Instances of subclasses are returned as they are.
+   */
+  static BibTexTerm intern(BibTexTerm term) {
+    if (term.getClass() != BibTexTerm.class) {
+      return term;
+    }
+    return INTERNER.intern(Arrays.asList(term.name, term.isClass), term);
+  }
+
+  /**
+   * Replaces deserialized terms with their canonical instance.
+   */
+  private Object readResolve() {
+    return intern(this);
+  }
+
   @Override
   public String simpleName() {
     return name;
@@ -69,6 +96,26 @@ public class BibTexTerm implements Term, Serializable {
     return prefixedName();
   }
 
+  @Override
+  public String qualifiedName() {
+    String q = qualifiedName;
+    if (q == null) {
+      q = NS + name;
+      qualifiedName = q;
+    }
+    return q;
+  }
+
+  @Override
+  public String prefixedName() {
+    String p = prefixedName;
+    if (p == null) {
+      p = PREFIX + ":" + name;
+      prefixedName = p;
+    }
+    return p;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -81,7 +128,12 @@ public class BibTexTerm implements Term, Serializable {
 
   @Override
   public int hashCode() {
-    return qualifiedName().hashCode();
+    int h = hash;
+    if (h == 0) {
+      h = qualifiedName().hashCode();
+      hash = h;
+    }
+    return h;
   }
 
   @Override
@@ -48,6 +48,8 @@ public enum ChronoTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "chrono";
   private static final String NS = "http://rs.tdwg.org/chrono/terms/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -83,7 +85,19 @@ public enum ChronoTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   ChronoTerm(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
@@ -43,6 +43,8 @@ public enum DcElement implements Term, AlternativeNames {
   private static final String NS = "http://purl.org/dc/elements/1.1/";
   private static final URI NS_URI = URI.create(NS);
 
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -75,7 +77,19 @@ public enum DcElement implements Term, AlternativeNames {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   DcElement(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
@@ -84,6 +84,8 @@ public enum DcTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "dcterms";
   private static final String NS = "http://purl.org/dc/terms/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -93,7 +95,8 @@ public enum DcTerm implements Term, AlternativeNames, Serializable {
 
   @Override
   public String simpleName() {
-    if (this == abstract_) {
+    // called by the constructor, before the constants are assigned
+    if (name().equals("abstract_")) {
       return "abstract";
     }
     return name();
@@ -122,8 +125,20 @@ public enum DcTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   DcTerm(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 
 }
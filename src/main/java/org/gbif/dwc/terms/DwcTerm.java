@@ -309,6 +309,17 @@ public enum DwcTerm implements Term, AlternativeNames, Serializable {
         DwcTerm.tribe, DwcTerm.subtribe,
         DwcTerm.genus, DwcTerm.subgenus};
 
+  /**
+   * Set of all taxonomic terms in dwc, for fast membership tests.
+   */
+  public static final TermSet TAXONOMIC_TERM_SET = TermSet.of(TAXONOMIC_TERMS);
+
+  /**
+   * Set of all higher rank terms in dwc, for fast membership tests.
+   * Use {@link #HIGHER_RANKS} to iterate them ordered by rank.
+   */
+  public static final TermSet HIGHER_RANK_SET = TermSet.of(HIGHER_RANKS);
+
   /**
    * List of all class terms in dwc.
    */
@@ -316,12 +327,16 @@ public enum DwcTerm implements Term, AlternativeNames, Serializable {
                                                     .filter(DwcTerm::isClass)
                                                     .toArray(DwcTerm[]::new);
 
+  private final String qualifiedName;
+  private final String prefixedName;
   private final String groupName;
   public final String normQName;
   public final String[] normAlts;
 
   private DwcTerm(String groupName, String... alternatives) {
-    normQName = TermFactory.normaliseTerm(qualifiedName());
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
+    normQName = TermFactory.normaliseTerm(qualifiedName);
     for (int i = 0; i < alternatives.length; i++) {
       alternatives[i] = TermFactory.normaliseTerm(alternatives[i]);
     }
@@ -337,7 +352,8 @@ public enum DwcTerm implements Term, AlternativeNames, Serializable {
    */
   @Override
   public String simpleName() {
-    if (this == class_) {
+    // called by the constructor, before the constants are assigned
+    if (name().equals("class_")) {
       return "class";
     }
     return name();
@@ -396,6 +412,16 @@ public enum DwcTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   @Override
   public String toString() {
     return prefixedName();
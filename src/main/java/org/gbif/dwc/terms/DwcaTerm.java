@@ -31,6 +31,13 @@ public enum DwcaTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "dwca";
   private static final String NS = "http://rs.tdwg.org/dwc/text/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
+
+  DwcaTerm() {
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
+  }
   
   
   @Override
@@ -42,6 +49,16 @@ public enum DwcaTerm implements Term, AlternativeNames, Serializable {
   public URI namespace() {
     return NS_URI;
   }
+
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
   
   @Override
   public String simpleName() {
@@ -81,10 +81,14 @@ public enum EcoTerm implements Term, AlternativeNames, Serializable {
   private static final String NS = "http://rs.tdwg.org/eco/terms/";
   private static final URI NS_URI = URI.create(NS);
 
+  private final String qualifiedName;
+  private final String prefixedName;
   private final String groupName;
 
   EcoTerm(String groupName) {
     this.groupName = groupName;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 
   @Override
@@ -97,6 +101,16 @@ public enum EcoTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   @Override
   public String simpleName() {
     return name();
@@ -28,6 +28,8 @@ public enum ExifTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "exif";
   private static final String NS = "http://ns.adobe.com/exif/1.0/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -60,7 +62,19 @@ public enum ExifTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   ExifTerm(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for building the term factory instance.
+ */
+@Name("org.gbif.dwc.terms.FactoryInit")
+@Label("Term Factory Initialization")
+@Category({"GBIF", "Darwin Core Terms"})
+@StackTrace(false)
+final class FactoryInitEvent extends Event {
+
+  @Label("Lazy")
+  @Description("Vocabularies are registered on demand")
+  boolean lazy;
+
+  @Label("Precomputed")
+  @Description("The index of built-in vocabularies was read from the precomputed snapshot")
+  boolean precomputed;
+
+  @Label("Vocabularies")
+  @Description("Number of term enumerations registered")
+  int vocabularies;
+
+  @Label("Names")
+  @Description("Number of property and class term names indexed")
+  int names;
+
+  @Label("Collisions")
+  @Description("Number of names not indexed as they were already taken by another term")
+  int collisions;
+}
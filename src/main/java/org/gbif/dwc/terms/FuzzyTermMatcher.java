@@ -0,0 +1,374 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable matcher for misspelled names of known terms, e.g. scientifcName or catalogue number.
+ *
+ * Names are compared in their normalised form with the simple names, alternative names and aliases of all known terms,
+ * counting insertions, deletions, substitutions and transpositions of adjacent characters.
+ * Qualified and prefixed names are matched by their last segment.
+ * Names of at least {@value #PREFIX_LENGTH} characters also match the start of longer names they do not match
+ * as a whole, so abbreviations like decimal_lat are found. Abbreviations always rank after all matches of whole names.
+ * Candidates are found with a symmetric delete index over the first {@value #PREFIX_LENGTH} characters of every name,
+ * so a match only verifies a few candidates instead of scanning all names.
+ */
+public final class FuzzyTermMatcher {
+
+  static final int PREFIX_LENGTH = 7;
+
+  private final int maxDistance;
+  private final long epoch;
+  // normalised names with their terms, a name can be shared by a property and a class term
+  private final String[] names;
+  private final Term[] terms;
+  // all deletes of the name prefixes -> indices of names
+  private final Map<String, int[]> deletes;
+
+  /**
+   * A term matching a name, see {@link #match(String)}.
+   */
+  public static final class Match {
+    private final Term term;
+    private final String name;
+    private final int distance;
+    private final double score;
+    private final boolean abbreviation;
+
+    private Match(Term term, String name, int distance, double score, boolean abbreviation) {
+      this.term = term;
+      this.name = name;
+      this.distance = distance;
+      this.score = score;
+      this.abbreviation = abbreviation;
+    }
+
+    public Term getTerm() {
+      return term;
+    }
+
+    /**
+     * @return the normalised name of the term that matched
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return the edit distance between the normalised names, or to the start of the term name for abbreviations
+     */
+    public int getDistance() {
+      return distance;
+    }
+
+    /**
+     * @return the similarity between 0 and 1, 1 for names equal after normalisation
+     */
+    public double getScore() {
+      return score;
+    }
+
+    /**
+     * @return true if only the start of the term name matched, e.g. decimal_lat for decimalLatitude
+     */
+    public boolean isAbbreviation() {
+      return abbreviation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Match)) return false;
+      Match that = (Match) o;
+      return distance == that.distance && abbreviation == that.abbreviation && term.equals(that.term)
+          && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(term, name, distance, abbreviation);
+    }
+
+    @Override
+    public String toString() {
+      return term + " (" + name + ", " + distance + ")";
+    }
+  }
+
+  FuzzyTermMatcher(TermIndexSnapshot snapshot, int maxDistance) {
+    if (maxDistance < 0) {
+      throw new IllegalArgumentException("The maximum edit distance must not be negative");
+    }
+    this.maxDistance = maxDistance;
+    this.epoch = snapshot.epoch();
+    List<String> names = new ArrayList<>();
+    List<Term> terms = new ArrayList<>();
+    for (boolean isClass : new boolean[]{false, true}) {
+      names(snapshot, isClass).forEach((name, term) -> {
+        names.add(name);
+        terms.add(term);
+      });
+    }
+    this.names = names.toArray(new String[0]);
+    this.terms = terms.toArray(new Term[0]);
+
+    Map<String, List<Integer>> deletes = new HashMap<>();
+    for (int i = 0; i < this.names.length; i++) {
+      for (String d : deletes(prefix(this.names[i]), maxDistance)) {
+        deletes.computeIfAbsent(d, k -> new ArrayList<>(2)).add(i);
+      }
+    }
+    this.deletes = new HashMap<>(deletes.size() * 4 / 3 + 1);
+    deletes.forEach((d, idx) -> this.deletes.put(d, idx.stream().mapToInt(Integer::intValue).toArray()));
+  }
+
+  /**
+   * Collects the normalised names to match with: the simple and alternative names of all terms
+   * and the aliases they were registered with.
+   * The qualified, prefixed and normalised names the index also holds are left out,
+   * as they only repeat these names with a namespace.
+   *
+   * @return normalised names with the term each resolves to, in registration order
+   */
+  static Map<String, Term> names(TermIndexSnapshot snapshot, boolean isClass) {
+    Set<String> namespaces = new HashSet<>();
+    snapshot.forEachNamespace(ns -> namespaces.add(TermFactory.normaliseTerm(ns)));
+    // simple names, and all names derived from the names of the terms when they were registered
+    Set<String> simpleNames = new HashSet<>();
+    Set<String> derived = new HashSet<>();
+    snapshot.forEach(isClass, (key, term) -> {
+      simpleNames.add(TermFactory.normaliseTerm(term.simpleName()));
+      String normalised = TermFactory.normaliseTerm(key);
+      if (!normalised.equals(key)) {
+        derived.add(normalised);
+      }
+      if (term instanceof AlternativeNames) {
+        for (String alt : ((AlternativeNames) term).alternativeNames()) {
+          derived.add(TermFactory.normaliseTerm(alt));
+        }
+      }
+    });
+
+    Map<String, Term> names = new LinkedHashMap<>();
+    Set<Term> seen = new HashSet<>();
+    snapshot.forEach(isClass, (key, term) -> {
+      if (seen.add(term)) {
+        add(names, snapshot, isClass, TermFactory.normaliseTerm(term.simpleName()), term);
+        if (term instanceof AlternativeNames) {
+          for (String alt : ((AlternativeNames) term).alternativeNames()) {
+            // some vocabularies keep normalised alternative names, in which a namespace is only recognised by its name
+            String name = TermFactory.normaliseTerm(alt);
+            if (!isQualified(alt) && !isQualified(name, namespaces, simpleNames)) {
+              add(names, snapshot, isClass, name, term);
+            }
+          }
+        }
+      }
+      // aliases registered for the term
+      if (!isQualified(key) && !derived.contains(key)) {
+        add(names, snapshot, isClass, TermFactory.normaliseTerm(key), term);
+      }
+    });
+    return names;
+  }
+
+  /**
+   * @return true if the normalised name is a known simple name with a known namespace or prefix
+   */
+  private static boolean isQualified(String name, Set<String> namespaces, Set<String> simpleNames) {
+    for (int i = 1; i < name.length(); i++) {
+      if (namespaces.contains(name.substring(0, i)) && simpleNames.contains(name.substring(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void add(Map<String, Term> names, TermIndexSnapshot snapshot, boolean isClass, String name, Term term) {
+    if (!name.isEmpty() && !names.containsKey(name)) {
+      // the term the normalised name resolves to, if any
+      Term resolved = snapshot.get(name, isClass);
+      names.put(name, resolved != null ? resolved : term);
+    }
+  }
+
+  public int getMaxDistance() {
+    return maxDistance;
+  }
+
+  /**
+   * @return the epoch of the factory the matcher was built for, see {@link TermFactory#epoch()}
+   */
+  public long epoch() {
+    return epoch;
+  }
+
+  /**
+   * @return all terms within the maximum edit distance of the name, the closest and most similar first
+   */
+  public List<Match> match(String name) {
+    return match(name, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @return up to limit terms within the maximum edit distance of the name, the closest and most similar first
+   */
+  public List<Match> match(String name, int limit) {
+    List<Match> matches = new ArrayList<>();
+    if (TermFactory.isNullOrEmpty(name)) {
+      return matches;
+    }
+    String query = TermFactory.normaliseTerm(lastSegment(name));
+    if (query.isEmpty()) {
+      return matches;
+    }
+    BitSet checked = new BitSet(names.length);
+    Map<Term, Match> best = new IdentityHashMap<>();
+    for (String d : deletes(prefix(query), maxDistance)) {
+      int[] candidates = deletes.get(d);
+      if (candidates == null) {
+        continue;
+      }
+      for (int i : candidates) {
+        if (checked.get(i)) {
+          continue;
+        }
+        checked.set(i);
+        String candidate = names[i];
+        int distance = distance(query, candidate, maxDistance);
+        double score = 1 - (double) distance / Math.max(query.length(), candidate.length());
+        boolean abbreviated = false;
+        if (distance > maxDistance && query.length() >= PREFIX_LENGTH && candidate.length() > query.length()) {
+          // abbreviated names like decimal_lat, scored by the share of the name they match
+          distance = distance(query, candidate.substring(0, query.length()), maxDistance);
+          score = 1 - (double) (distance + candidate.length() - query.length()) / candidate.length();
+          abbreviated = true;
+        }
+        if (distance <= maxDistance) {
+          Match m = new Match(terms[i], candidate, distance, score, abbreviated);
+          best.merge(terms[i], m, (a, b) -> MATCH_ORDER.compare(a, b) <= 0 ? a : b);
+        }
+      }
+    }
+    matches.addAll(best.values());
+    matches.sort(MATCH_ORDER);
+    return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+  }
+
+  private static final Comparator<Match> MATCH_ORDER = Comparator
+      .comparing(Match::isAbbreviation)
+      .thenComparingInt(Match::getDistance)
+      .thenComparing(Comparator.comparingDouble(Match::getScore).reversed())
+      .thenComparing(m -> m.getTerm().isClass())
+      .thenComparing(Match::getName)
+      .thenComparing(m -> m.getTerm().qualifiedName());
+
+  /**
+   * @return the name after the last colon, slash or hash
+   */
+  private static String lastSegment(String name) {
+    int i = Math.max(name.lastIndexOf(':'), Math.max(name.lastIndexOf('/'), name.lastIndexOf('#')));
+    return i >= 0 && i < name.length() - 1 ? name.substring(i + 1) : name;
+  }
+
+  /**
+   * @return true if the name has a namespace or prefix
+   */
+  private static boolean isQualified(String name) {
+    return lastSegment(name).length() < name.length();
+  }
+
+  private static String prefix(String name) {
+    return name.length() > PREFIX_LENGTH ? name.substring(0, PREFIX_LENGTH) : name;
+  }
+
+  /**
+   * @return the string itself and all strings derived from it by deleting up to max characters
+   */
+  static Set<String> deletes(String s, int max) {
+    Set<String> deletes = new HashSet<>();
+    deletes.add(s);
+    List<String> current = List.of(s);
+    for (int d = 0; d < max; d++) {
+      List<String> next = new ArrayList<>();
+      for (String c : current) {
+        for (int i = 0; i < c.length(); i++) {
+          String del = c.substring(0, i) + c.substring(i + 1);
+          if (deletes.add(del)) {
+            next.add(del);
+          }
+        }
+      }
+      current = next;
+    }
+    return deletes;
+  }
+
+  /**
+   * Optimal string alignment distance, counting insertions, deletions, substitutions
+   * and transpositions of adjacent characters.
+   *
+   * @return the distance or max + 1 if the distance is larger than max
+   */
+  static int distance(String a, String b, int max) {
+    int n = a.length();
+    int m = b.length();
+    if (Math.abs(n - m) > max) {
+      return max + 1;
+    }
+    int[] prev2 = new int[m + 1];
+    int[] prev = new int[m + 1];
+    int[] cur = new int[m + 1];
+    for (int j = 0; j <= m; j++) {
+      prev[j] = j;
+    }
+    for (int i = 1; i <= n; i++) {
+      cur[0] = i;
+      int rowMin = cur[0];
+      char ca = a.charAt(i - 1);
+      for (int j = 1; j <= m; j++) {
+        char cb = b.charAt(j - 1);
+        int cost = ca == cb ? 0 : 1;
+        int v = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+        if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+          v = Math.min(v, prev2[j - 2] + 1);
+        }
+        cur[j] = v;
+        rowMin = Math.min(rowMin, v);
+      }
+      if (rowMin > max) {
+        return max + 1;
+      }
+      int[] tmp = prev2;
+      prev2 = prev;
+      prev = cur;
+      cur = tmp;
+    }
+    return Math.min(prev[m], max + 1);
+  }
+}
@@ -31,10 +31,14 @@ public enum GadmTerm implements Term, AlternativeNames {
   private static final String NS = "http://rs.gbif.org/terms/gadm/3.0/";
   private static final URI NS_URI = URI.create(NS);
 
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] normAlts;
 
   GadmTerm(String... alternatives) {
     normAlts = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 
   @Override
@@ -62,6 +66,16 @@ public enum GadmTerm implements Term, AlternativeNames {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   @Override
   public boolean isClass() {
     return false;
@@ -36,6 +36,8 @@ public enum GbifDnaTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "gbifdna";
   private static final String NS = "http://rs.gbif.org/terms/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -68,7 +70,19 @@ public enum GbifDnaTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   GbifDnaTerm(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
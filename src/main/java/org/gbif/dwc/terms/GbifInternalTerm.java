@@ -74,6 +74,13 @@ public enum GbifInternalTerm implements Term, AlternativeNames {
   private static final String PREFIX = "gbint";
   private static final String NS = "http://rs.gbif.org/terms/internal/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
+
+  GbifInternalTerm() {
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
+  }
 
   private static final String[] EMPTY = new String[0];
 
@@ -106,4 +113,14 @@ public enum GbifInternalTerm implements Term, AlternativeNames {
   public URI namespace() {
     return NS_URI;
   }
+
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
 }
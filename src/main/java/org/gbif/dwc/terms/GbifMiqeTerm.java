@@ -48,6 +48,8 @@ public enum GbifMiqeTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "gbifmiqe";
   private static final String NS = "http://rs.gbif.org/terms/miqe/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -80,7 +82,19 @@ public enum GbifMiqeTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   GbifMiqeTerm(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
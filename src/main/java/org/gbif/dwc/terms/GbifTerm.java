@@ -432,6 +432,13 @@ public enum GbifTerm implements Term, AlternativeNames, Serializable {
    GbifTerm.species, GbifTerm.canonicalName, GbifTerm.nameType, GbifTerm.acceptedScientificName,
    GbifTerm.verbatimScientificName};
 
+  /**
+   * Set of all GBIF terms in taxon group, for fast membership tests.
+   */
+  public static final TermSet TAXONOMIC_TERM_SET = TermSet.of(TAXONOMIC_TERMS);
+
+  private final String qualifiedName;
+  private final String prefixedName;
   private final String groupName;
   private final boolean isDeprecated;
   public final String[] normAlts;
@@ -444,6 +451,8 @@ public enum GbifTerm implements Term, AlternativeNames, Serializable {
       deprecatedAnnotationPresent = GbifTerm.class.getField(this.name()).isAnnotationPresent(Deprecated.class);
     } catch (NoSuchFieldException ignore) { }
     this.isDeprecated = deprecatedAnnotationPresent;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 
   /**
@@ -512,6 +521,16 @@ public enum GbifTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   /**
    *
    * @return true if the Term is annotated with @Deprecated.
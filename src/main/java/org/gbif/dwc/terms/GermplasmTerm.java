@@ -80,6 +80,8 @@ public enum GermplasmTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "germplasm";
   private static final String NS = "http://purl.org/germplasm/germplasmTerm#";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -115,7 +117,19 @@ public enum GermplasmTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   GermplasmTerm(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
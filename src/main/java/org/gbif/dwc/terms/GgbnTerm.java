@@ -115,6 +115,8 @@ public enum GgbnTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "ggbn";
   private static final String NS = "http://data.ggbn.org/schemas/ggbn/terms/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final boolean isClass;
   public final String[] alternatives;
 
@@ -125,7 +127,8 @@ public enum GgbnTerm implements Term, AlternativeNames, Serializable {
 
   @Override
   public String simpleName() {
-    if (this == GC_content) {
+    // called by the constructor, before the constants are assigned
+    if (name().equals("GC_content")) {
       return "GC-content";
     }
     return name();
@@ -154,6 +157,16 @@ public enum GgbnTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   GgbnTerm() {
     this(false);
   }
@@ -161,5 +174,7 @@ public enum GgbnTerm implements Term, AlternativeNames, Serializable {
   GgbnTerm(Boolean isClass, String... alternatives) {
     this.isClass = isClass;
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of resolved header rows keyed by a fingerprint of all column names.
+ * The least recently used headers are evicted using the CLOCK approximation of LRU, so hits never take a lock
+ * and only caching a new header is serialised.
+ */
+final class HeaderCache {
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final Map<Header, Entry> cache = new ConcurrentHashMap<>();
+  private volatile int capacity;
+  // incremented on every clear, written while holding this
+  private volatile long generation;
+  // CLOCK ring, all guarded by this
+  private Entry[] ring = new Entry[0];
+  private int hand;
+
+  private static final class Entry {
+    private final Header header;
+    private final Term[] terms;
+    private volatile boolean referenced;
+
+    private Entry(Header header, Term[] terms) {
+      this.header = header;
+      this.terms = terms;
+    }
+  }
+
+  /**
+   * Column names of a header row with their precomputed fingerprint.
+   * Headers given as different CharSequence implementations are equal if their characters are.
+   */
+  private static final class Header {
+    private final CharSequence[] columns;
+    private final int fingerprint;
+
+    private Header(CharSequence[] columns) {
+      this.columns = columns;
+      int h = 1;
+      for (CharSequence c : columns) {
+        h = 31 * h + hash(c);
+      }
+      this.fingerprint = h;
+    }
+
+    /**
+     * @return the same hash as String.hashCode() for any char sequence
+     */
+    private static int hash(CharSequence c) {
+      if (c == null) {
+        return 0;
+      }
+      if (c instanceof String) {
+        return c.hashCode();
+      }
+      int h = 0;
+      for (int i = 0; i < c.length(); i++) {
+        h = 31 * h + c.charAt(i);
+      }
+      return h;
+    }
+
+    /**
+     * @return a copy with all columns as immutable strings, safe to be kept in the cache
+     */
+    private Header copy() {
+      String[] copy = new String[columns.length];
+      for (int i = 0; i < columns.length; i++) {
+        copy[i] = columns[i] == null ? null : columns[i].toString();
+      }
+      return new Header(copy);
+    }
+
+    @Override
+    public int hashCode() {
+      return fingerprint;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Header)) return false;
+
+      Header that = (Header) o;
+      if (fingerprint != that.fingerprint || columns.length != that.columns.length) {
+        return false;
+      }
+      for (int i = 0; i < columns.length; i++) {
+        if (!contentEquals(columns[i], that.columns[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static boolean contentEquals(CharSequence a, CharSequence b) {
+      if (a == null || b == null) {
+        return a == b;
+      }
+      if (a instanceof String) {
+        return ((String) a).contentEquals(b);
+      }
+      if (b instanceof String) {
+        return ((String) b).contentEquals(a);
+      }
+      return a.toString().contentEquals(b);
+    }
+  }
+
+  HeaderCache(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * @return a copy of the cached terms for the header or null if not cached
+   */
+  Term[] get(CharSequence[] columns) {
+    Entry e = cache.get(new Header(columns));
+    if (e == null) {
+      misses.increment();
+      return null;
+    }
+    if (!e.referenced) {
+      e.referenced = true;
+    }
+    hits.increment();
+    return e.terms.clone();
+  }
+
+  /**
+   * @return the current generation to be passed to put
+   */
+  long generation() {
+    return generation;
+  }
+
+  /**
+   * Caches resolved terms unless the cache was cleared since the given generation,
+   * as the terms might then be resolved differently.
+   */
+  void put(CharSequence[] columns, Term[] terms, long generation) {
+    if (capacity <= 0) {
+      return;
+    }
+    Header key = new Header(columns).copy();
+    synchronized (this) {
+      if (generation != this.generation || capacity <= 0 || cache.containsKey(key)) {
+        return;
+      }
+      if (ring.length != capacity) {
+        resize(capacity);
+      }
+      // evict the first header not used since the hand passed it last
+      while (ring[hand] != null && ring[hand].referenced) {
+        ring[hand].referenced = false;
+        hand = (hand + 1) % ring.length;
+      }
+      if (ring[hand] != null) {
+        cache.remove(ring[hand].header);
+      }
+      Entry e = new Entry(key, terms.clone());
+      ring[hand] = e;
+      hand = (hand + 1) % ring.length;
+      cache.put(key, e);
+    }
+  }
+
+  synchronized void clear() {
+    generation++;
+    cache.clear();
+    ring = new Entry[0];
+    hand = 0;
+  }
+
+  synchronized void setCapacity(int capacity) {
+    this.capacity = capacity;
+    resize(capacity);
+  }
+
+  /**
+   * Moves the cached headers into a ring of the new capacity, evicting the oldest ones that do not fit.
+   */
+  private void resize(int capacity) {
+    List<Entry> entries = new ArrayList<>();
+    for (int i = 0; i < ring.length; i++) {
+      Entry e = ring[(hand + i) % ring.length];
+      if (e != null) {
+        entries.add(e);
+      }
+    }
+    int size = Math.max(capacity, 0);
+    int evict = Math.max(entries.size() - size, 0);
+    for (Entry e : entries.subList(0, evict)) {
+      cache.remove(e.header);
+    }
+    ring = new Entry[size];
+    entries.subList(evict, entries.size()).toArray(ring);
+    hand = size == 0 ? 0 : (entries.size() - evict) % size;
+  }
+
+  int getCapacity() {
+    return capacity;
+  }
+
+  int size() {
+    return cache.size();
+  }
+
+  long hits() {
+    return hits.sum();
+  }
+
+  long misses() {
+    return misses.sum();
+  }
+}
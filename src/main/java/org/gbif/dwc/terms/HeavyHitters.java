@@ -0,0 +1,208 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded Space-Saving sketch of the most frequent names seen.
+ * It keeps at most capacity names. A new name replaces the least frequent one and takes over its count,
+ * so counts are overestimated by at most the count of the replaced name,
+ * but any name seen more often than total / capacity times is guaranteed to be kept.
+ *
+ * Names are counted in striped sketches, each with its own lock, which are merged when read.
+ * A thread adds to its own stripe, or to any other one not locked at the moment,
+ * so concurrent lookups rarely wait for each other.
+ * A name seen more often than total / capacity times is seen that often by at least one stripe,
+ * so the guarantee above holds for the merged sketch as well.
+ */
+final class HeavyHitters {
+
+  private static final int MAX_STRIPES = 16;
+
+  private final int capacity;
+  private final Stripe[] stripes;
+
+  /**
+   * Space-Saving sketch kept in a binary min heap of counts,
+   * so adding a name costs O(log capacity) also when the least frequent name is replaced.
+   */
+  private static final class Stripe {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int capacity;
+    // all fields below guarded by lock
+    private String[] names = new String[8];
+    private long[] counts = new long[8];
+    private int size;
+    // position of each name in the heap
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    private Stripe(int capacity) {
+      this.capacity = capacity;
+    }
+
+    private void add(String name) {
+      Integer pos = positions.get(name);
+      if (pos != null) {
+        counts[pos]++;
+        siftDown(pos);
+      } else if (size < capacity) {
+        if (size == names.length) {
+          names = Arrays.copyOf(names, Math.min(size * 2, capacity));
+          counts = Arrays.copyOf(counts, names.length);
+        }
+        names[size] = name;
+        counts[size] = 1;
+        positions.put(name, size);
+        siftUp(size++);
+      } else {
+        // replace the least frequent name and take over its count
+        positions.remove(names[0]);
+        names[0] = name;
+        counts[0]++;
+        positions.put(name, 0);
+        siftDown(0);
+      }
+    }
+
+    private void siftUp(int i) {
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (counts[parent] <= counts[i]) {
+          return;
+        }
+        swap(i, parent);
+        i = parent;
+      }
+    }
+
+    private void siftDown(int i) {
+      while (true) {
+        int min = i;
+        int left = 2 * i + 1;
+        if (left < size && counts[left] < counts[min]) {
+          min = left;
+        }
+        if (left + 1 < size && counts[left + 1] < counts[min]) {
+          min = left + 1;
+        }
+        if (min == i) {
+          return;
+        }
+        swap(i, min);
+        i = min;
+      }
+    }
+
+    private void swap(int i, int j) {
+      String n = names[i];
+      names[i] = names[j];
+      names[j] = n;
+      long c = counts[i];
+      counts[i] = counts[j];
+      counts[j] = c;
+      positions.put(names[i], i);
+      positions.put(names[j], j);
+    }
+  }
+
+  HeavyHitters(int capacity) {
+    this(capacity, Math.min(Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors() * 2 - 1, 1)), MAX_STRIPES));
+  }
+
+  /**
+   * @param stripes number of stripes, a power of two
+   */
+  HeavyHitters(int capacity, int stripes) {
+    this.capacity = capacity;
+    this.stripes = new Stripe[capacity > 0 ? stripes : 0];
+    for (int i = 0; i < this.stripes.length; i++) {
+      this.stripes[i] = new Stripe(capacity);
+    }
+  }
+
+  void add(String name) {
+    if (capacity <= 0) {
+      return;
+    }
+    int mask = stripes.length - 1;
+    long id = Thread.currentThread().getId();
+    int home = ((int) (id ^ (id >>> 32)) * 0x9E3779B9 >>> 16) & mask;
+    // try the own stripe first and move on to any stripe not locked at the moment
+    for (int i = 0; i <= mask; i++) {
+      Stripe s = stripes[(home + i) & mask];
+      if (s.lock.tryLock()) {
+        try {
+          s.add(name);
+        } finally {
+          s.lock.unlock();
+        }
+        return;
+      }
+    }
+    Stripe s = stripes[home];
+    s.lock.lock();
+    try {
+      s.add(name);
+    } finally {
+      s.lock.unlock();
+    }
+  }
+
+  /**
+   * @return the estimated count of every name kept by any stripe
+   */
+  private Map<String, Long> merge() {
+    Map<String, Long> merged = new HashMap<>();
+    for (Stripe s : stripes) {
+      s.lock.lock();
+      try {
+        for (int i = 0; i < s.size; i++) {
+          merged.merge(s.names[i], s.counts[i], Long::sum);
+        }
+      } finally {
+        s.lock.unlock();
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * @return up to n names with their estimated counts, the most frequent first
+   */
+  Map<String, Long> top(int n) {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>(merge().entrySet());
+    entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+    Map<String, Long> top = new LinkedHashMap<>();
+    for (Map.Entry<String, Long> e : entries.subList(0, Math.min(Math.min(n, capacity), entries.size()))) {
+      top.put(e.getKey(), e.getValue());
+    }
+    return top;
+  }
+
+  /**
+   * @return the number of names kept, at most the capacity
+   */
+  int size() {
+    return Math.min(merge().size(), Math.max(capacity, 0));
+  }
+}
@@ -35,6 +35,8 @@ public enum IptcTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "iptc";
   private static final String NS = "http://iptc.org/std/Iptc4xmpExt/2008-02-29/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -67,7 +69,19 @@ public enum IptcTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   IptcTerm(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
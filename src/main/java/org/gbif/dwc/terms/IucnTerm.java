@@ -34,10 +34,14 @@ public enum IucnTerm implements Term, AlternativeNames {
   private static final String NS = "http://iucn.org/terms/";
   private static final URI NS_URI = URI.create(NS);
 
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] normAlts;
 
   IucnTerm(String... alternatives) {
     normAlts = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 
   @Override
@@ -65,6 +69,16 @@ public enum IucnTerm implements Term, AlternativeNames {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   @Override
   public boolean isClass() {
     return false;
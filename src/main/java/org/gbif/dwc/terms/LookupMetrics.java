@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live lookup counters of a {@link TermFactory}.
+ * Counters are striped, so counting costs next to nothing even with many threads looking up terms concurrently.
+ */
+final class LookupMetrics implements TermFactoryMetricsMXBean {
+
+  private final LongAdder exactHits = new LongAdder();
+  private final LongAdder normalisedHits = new LongAdder();
+  private final LongAdder classHits = new LongAdder();
+  private final LongAdder propertyHits = new LongAdder();
+  private final LongAdder bibTexTermCreations = new LongAdder();
+  private final LongAdder unknownTermCreations = new LongAdder();
+  private final LongAdder rejectedNames = new LongAdder();
+  private final HeavyHitters unknownNames;
+  private final HeaderCache headerCache;
+
+  LookupMetrics(int topUnknownNames, HeaderCache headerCache) {
+    this.unknownNames = new HeavyHitters(topUnknownNames);
+    this.headerCache = headerCache;
+  }
+
+  /**
+   * Counts a lookup resolved to an existing term.
+   * @param name the name looked up or null to track unknown terms by their qualified name
+   */
+  void hit(CharSequence name, Term term, boolean normalised) {
+    (normalised ? normalisedHits : exactHits).increment();
+    (term.isClass() ? classHits : propertyHits).increment();
+    if (term instanceof UnknownTerm) {
+      unknownNames.add(name != null ? name.toString() : term.qualifiedName());
+    }
+  }
+
+  void bibTexTermCreated() {
+    bibTexTermCreations.increment();
+  }
+
+  void unknownTermCreated(String name) {
+    unknownTermCreations.increment();
+    unknownNames.add(name);
+  }
+
+  void rejected(String name) {
+    rejectedNames.increment();
+    unknownNames.add(name);
+  }
+
+  @Override
+  public long getExactHits() {
+    return exactHits.sum();
+  }
+
+  @Override
+  public long getNormalisedHits() {
+    return normalisedHits.sum();
+  }
+
+  @Override
+  public long getClassHits() {
+    return classHits.sum();
+  }
+
+  @Override
+  public long getPropertyHits() {
+    return propertyHits.sum();
+  }
+
+  @Override
+  public long getBibTexTermCreations() {
+    return bibTexTermCreations.sum();
+  }
+
+  @Override
+  public long getUnknownTermCreations() {
+    return unknownTermCreations.sum();
+  }
+
+  @Override
+  public long getRejectedNames() {
+    return rejectedNames.sum();
+  }
+
+  @Override
+  public long getHeaderCacheHits() {
+    return headerCache.hits();
+  }
+
+  @Override
+  public long getHeaderCacheMisses() {
+    return headerCache.misses();
+  }
+
+  @Override
+  public Map<String, Long> getTopUnknownNames() {
+    return unknownNames.top(Integer.MAX_VALUE);
+  }
+}
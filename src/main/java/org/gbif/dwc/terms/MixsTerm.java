@@ -137,6 +137,8 @@ public enum MixsTerm implements Term, AlternativeNames, Serializable {
   private static final String VERY_OLD_NS = "http://gensc.org/ns/mixs/";
 
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   private final String mixsIdentifier;
   public final String[] alternatives;
 
@@ -147,10 +149,11 @@ public enum MixsTerm implements Term, AlternativeNames, Serializable {
 
   @Override
   public String simpleName() {
-    if (this == _16s_recover) {
+    // called by the constructor, before the constants are assigned
+    if (name().equals("_16s_recover")) {
       return "16s_recover";
     }
-    if (this == _16s_recover_software) {
+    if (name().equals("_16s_recover_software")) {
       return "16s_recover_software";
     }
     return name();
@@ -161,11 +164,6 @@ public enum MixsTerm implements Term, AlternativeNames, Serializable {
     return alternatives;
   }
 
-  @Override
-  public String qualifiedName() {
-    return namespace() + mixsIdentifier;
-  }
-
   @Override
   public boolean isClass() {
     return false;
@@ -181,11 +179,23 @@ public enum MixsTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   MixsTerm(String mixsIdentifier, String... alternatives) {
     this.mixsIdentifier = mixsIdentifier;
     this.alternatives = Arrays.copyOf(alternatives, alternatives.length + 3);
     this.alternatives[alternatives.length] = name();
     this.alternatives[alternatives.length+1] = OLD_NS + mixsIdentifier;
     this.alternatives[alternatives.length+2] = VERY_OLD_NS + name();
+    qualifiedName = TermNames.qualifiedName(NS, mixsIdentifier);
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
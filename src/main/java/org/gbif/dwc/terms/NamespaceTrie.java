@@ -0,0 +1,286 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable radix trie over the namespaces and prefixes of all registered vocabularies,
+ * for example http://rs.tdwg.org/dwc/terms/ or dwc:.
+ *
+ * A term name is routed along the trie to the longest namespace it starts with and only the remainder of the name
+ * is then looked up in a small table of that namespace. Each namespace is also known with the other http scheme.
+ * The tables are derived from all keys of the full index when a namespace is first used and hold the very same term
+ * the normalised lookup of the whole name would find, so routing is merely a shortcut for it.
+ *
+ * The trie also knows namespace families like BibTeX, for which new terms are built on demand.
+ */
+final class NamespaceTrie {
+
+  private static final String HTTP = "http://";
+  private static final String HTTPS = "https://";
+
+  static final NamespaceTrie EMPTY = build(new ArrayList<>(), new LinkedHashMap<>(), TermHashTable.EMPTY, TermHashTable.EMPTY);
+
+  private final Node root;
+  private final List<String> namespaces;
+  private final Map<String, Function<String, Term>> families;
+  private final TermHashTable termTable;
+  private final TermHashTable classTermTable;
+
+  private static final class Node {
+    private String edge;
+    private char[] firsts = new char[0];
+    private Node[] children = new Node[0];
+    // full path to this node, only set for namespace nodes
+    private String path;
+    private int depth = -1;
+    // built on first use
+    private volatile TermHashTable terms;
+    private volatile TermHashTable classTerms;
+    private Function<String, Term> family;
+
+    private Node(String edge) {
+      this.edge = edge;
+    }
+
+    private Node child(char c) {
+      for (int i = 0; i < firsts.length; i++) {
+        if (firsts[i] == c) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+
+    private void setChild(Node child) {
+      char c = child.edge.charAt(0);
+      for (int i = 0; i < firsts.length; i++) {
+        if (firsts[i] == c) {
+          children[i] = child;
+          return;
+        }
+      }
+      int n = firsts.length;
+      firsts = Arrays.copyOf(firsts, n + 1);
+      children = Arrays.copyOf(children, n + 1);
+      firsts[n] = c;
+      children[n] = child;
+    }
+
+    private boolean isNamespace() {
+      return depth >= 0;
+    }
+  }
+
+  private NamespaceTrie(Node root, List<String> namespaces, Map<String, Function<String, Term>> families,
+                        TermHashTable termTable, TermHashTable classTermTable) {
+    this.root = root;
+    this.namespaces = namespaces;
+    this.families = families;
+    this.termTable = termTable;
+    this.classTermTable = classTermTable;
+  }
+
+  /**
+   * Builds a new trie.
+   *
+   * @param namespaces namespaces and prefixes including the colon
+   * @param families   factories for new terms by the namespace or prefix they start with
+   * @param termTable  all names of the index for property terms
+   */
+  static NamespaceTrie build(Collection<String> namespaces, Map<String, Function<String, Term>> families,
+                             TermHashTable termTable, TermHashTable classTermTable) {
+    Node root = new Node("");
+    for (String ns : namespaces) {
+      // a namespace must not change how the rest of the name is normalised
+      if (TermNormaliser.isSeparableHead(ns)) {
+        for (String path : spellings(ns)) {
+          Node n = insert(root, path);
+          n.path = path;
+          n.depth = path.length();
+        }
+      }
+    }
+    for (Map.Entry<String, Function<String, Term>> f : families.entrySet()) {
+      insert(root, f.getKey()).family = f.getValue();
+    }
+    return new NamespaceTrie(root, new ArrayList<>(namespaces), new LinkedHashMap<>(families), termTable, classTermTable);
+  }
+
+  /**
+   * @return the name as given and with the other http scheme
+   */
+  private static List<String> spellings(String name) {
+    List<String> spellings = new ArrayList<>(2);
+    spellings.add(name);
+    if (name.startsWith(HTTP)) {
+      spellings.add(HTTPS + name.substring(HTTP.length()));
+    } else if (name.startsWith(HTTPS)) {
+      spellings.add(HTTP + name.substring(HTTPS.length()));
+    }
+    return spellings;
+  }
+
+  private static Node insert(Node root, String path) {
+    Node node = root;
+    int pos = 0;
+    while (pos < path.length()) {
+      Node child = node.child(path.charAt(pos));
+      if (child == null) {
+        child = new Node(path.substring(pos));
+        node.setChild(child);
+        return child;
+      }
+      int common = 0;
+      while (common < child.edge.length() && pos + common < path.length()
+          && child.edge.charAt(common) == path.charAt(pos + common)) {
+        common++;
+      }
+      if (common < child.edge.length()) {
+        // split the edge
+        Node mid = new Node(child.edge.substring(0, common));
+        child.edge = child.edge.substring(common);
+        mid.setChild(child);
+        node.setChild(mid);
+        child = mid;
+      }
+      node = child;
+      pos += common;
+    }
+    return node;
+  }
+
+  /**
+   * @return the table of a namespace node, built on first use
+   */
+  private TermHashTable table(Node node, boolean isClass) {
+    TermHashTable table = isClass ? node.classTerms : node.terms;
+    if (table == null) {
+      // racing threads build equal tables, so no locking needed
+      table = buildTable(node.path, isClass ? classTermTable : termTable);
+      if (isClass) {
+        node.classTerms = table;
+      } else {
+        node.terms = table;
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Maps the remainder of every key starting with the namespace to the term found by the normalised lookup of the key,
+   * both as it is and normalised.
+   */
+  private static TermHashTable buildTable(String namespace, TermHashTable index) {
+    Map<String, Term> map = new LinkedHashMap<>();
+    index.forEach((key, term) -> {
+      for (String spelling : spellings(key)) {
+        if (spelling.startsWith(namespace)) {
+          Term t = index.getNormalised(spelling);
+          if (t != null) {
+            String remainder = spelling.substring(namespace.length());
+            map.putIfAbsent(remainder, t);
+            map.putIfAbsent(TermNormaliser.normaliseTail(remainder, 0), t);
+          }
+        }
+      }
+    });
+    return TermHashTable.build(map);
+  }
+
+  /**
+   * @return the deepest namespace node the name starts with or null
+   */
+  private Node route(CharSequence name) {
+    final int len = name.length();
+    Node match = null;
+    Node node = root;
+    int pos = 0;
+    while (pos < len) {
+      node = node.child(name.charAt(pos));
+      if (node == null || !startsWith(name, pos, node.edge)) {
+        break;
+      }
+      pos += node.edge.length();
+      if (node.isNamespace()) {
+        match = node;
+      }
+    }
+    return match;
+  }
+
+  private static boolean startsWith(CharSequence name, int from, String edge) {
+    if (name.length() - from < edge.length()) {
+      return false;
+    }
+    for (int i = 0; i < edge.length(); i++) {
+      if (name.charAt(from + i) != edge.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the term found by the normalised lookup of the name if the name starts with a known namespace,
+   * otherwise null
+   */
+  Term getNormalised(CharSequence name, boolean isClass) {
+    Node node = route(name);
+    if (node == null) {
+      return null;
+    }
+    TermHashTable table = table(node, isClass);
+    Term t = table.get(name, node.depth);
+    return t != null ? t : table.getNormalisedTail(name, node.depth);
+  }
+
+  /**
+   * @return the factory of the namespace family the name starts with or null
+   */
+  Function<String, Term> family(CharSequence name) {
+    final int len = name.length();
+    Function<String, Term> family = null;
+    Node node = root;
+    int pos = 0;
+    while (pos < len) {
+      node = node.child(name.charAt(pos));
+      if (node == null || !startsWith(name, pos, node.edge)) {
+        break;
+      }
+      pos += node.edge.length();
+      if (node.family != null) {
+        family = node.family;
+      }
+    }
+    return family;
+  }
+
+  List<String> namespaces() {
+    return namespaces;
+  }
+
+  Map<String, Function<String, Term>> families() {
+    return families;
+  }
+}
@@ -27,6 +27,8 @@ public enum PhotoshopTerm implements Term, AlternativeNames, Serializable {
   private static final String PREFIX = "photoshop";
   private static final String NS = "http://ns.adobe.com/photoshop/1.0/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -59,7 +61,19 @@ public enum PhotoshopTerm implements Term, AlternativeNames, Serializable {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   PhotoshopTerm(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
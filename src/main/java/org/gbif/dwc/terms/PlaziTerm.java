@@ -31,12 +31,16 @@ public enum PlaziTerm implements Term, AlternativeNames {
   private static final String NS = "http://plazi.org/terms/1.0/";
   private static final URI NS_URI = URI.create(NS);
 
+  private final String qualifiedName;
+  private final String prefixedName;
   private final boolean isClass;
   private final String[] alternatives;
 
   PlaziTerm(boolean isClass, String ... alternatives) {
     this.alternatives = alternatives;
     this.isClass = isClass;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 
   PlaziTerm(String ... alternatives) {
@@ -73,4 +77,14 @@ public enum PlaziTerm implements Term, AlternativeNames {
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
 }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binary snapshot of the fully built index of all built-in vocabularies, generated at build time
+ * and shipped as a classpath resource, so the factory does not need to resolve aliases, normalise names,
+ * settle collisions and search for perfect hash displacements on every start.
+ *
+ * Terms are stored as vocabulary class and ordinal and bound to the enum constants when read.
+ * A fingerprint of the vocabulary definitions together with the class names and number of constants of every
+ * vocabulary detects stale snapshots, which are ignored just as missing ones. Checking it does not need to walk
+ * all term names on every start: the snapshot is regenerated on every build and additionally stores
+ * a fingerprint of all names, which tests compare with the vocabularies.
+ */
+final class PrecomputedIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PrecomputedIndex.class);
+
+  static final String RESOURCE = "term-index.bin";
+
+  private static final int MAGIC = 0x44774349;
+  // increase whenever the format or the way names are indexed changes
+  private static final int VERSION = 4;
+  // class index of the BibTeX class term, the only known term that is not an enum constant
+  private static final int BIBTEX_CLASS_TERM = -1;
+
+  private PrecomputedIndex() {
+  }
+
+  /**
+   * Writes the index of all built-in vocabularies as a resource into the given classes directory.
+   * Run at build time with the output directory as the only argument.
+   */
+  public static void main(String[] args) throws IOException {
+    TermFactory factory = new TermFactory(false);
+    factory.listRegisteredTermEnums();
+    File dir = new File(args[0], PrecomputedIndex.class.getPackage().getName().replace('.', File.separatorChar));
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      throw new IOException("Cannot create directory " + dir);
+    }
+    File file = new File(dir, RESOURCE);
+    try (OutputStream out = new FileOutputStream(file)) {
+      write(out, TermFactory.vocabularyFingerprint(), TermFactory.termFingerprint(), TermFactory.vocabularyClasses(),
+          factory.index());
+    }
+    LOG.info("Written term index snapshot {}", file);
+  }
+
+  static void write(OutputStream stream, long fingerprint, long termFingerprint, List<Class<? extends Enum<?>>> classes,
+                    TermIndex index) throws IOException {
+    Map<Class<?>, Integer> classIndex = new HashMap<>();
+    for (int i = 0; i < classes.size(); i++) {
+      classIndex.put(classes.get(i), i);
+    }
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeLong(fingerprint);
+    out.writeLong(termFingerprint);
+    out.writeInt(classes.size());
+    for (Class<?> cl : classes) {
+      out.writeUTF(cl.getName());
+      out.writeShort(cl.getEnumConstants().length);
+    }
+    writeTable(out, index.table(false), classIndex);
+    writeTable(out, index.table(true), classIndex);
+    List<String> namespaces = index.namespaces();
+    out.writeInt(namespaces.size());
+    for (String ns : namespaces) {
+      out.writeUTF(ns);
+    }
+    List<TermCollisionReport.Collision> collisions = index.collisions();
+    out.writeInt(collisions.size());
+    for (TermCollisionReport.Collision c : collisions) {
+      out.writeUTF(c.getKey());
+      writeTerm(out, c.getKept(), classIndex);
+      writeTerm(out, c.getDropped(), classIndex);
+    }
+    out.flush();
+  }
+
+  private static void writeTable(DataOutputStream out, TermHashTable table, Map<Class<?>, Integer> classIndex) throws IOException {
+    out.writeInt(table.seed());
+    out.writeInt(table.slots());
+    int[] displacements = table.displacements();
+    out.writeInt(displacements.length);
+    for (int d : displacements) {
+      out.writeInt(d);
+    }
+    out.writeInt(table.size());
+    IOException[] error = new IOException[1];
+    table.forEach((key, term) -> {
+      try {
+        out.writeUTF(key);
+        writeTerm(out, term, classIndex);
+      } catch (IOException e) {
+        error[0] = e;
+      }
+    });
+    if (error[0] != null) {
+      throw error[0];
+    }
+  }
+
+  private static void writeTerm(DataOutputStream out, Term term, Map<Class<?>, Integer> classIndex) throws IOException {
+    if (term == BibTexTerm.CLASS_TERM) {
+      out.writeShort(BIBTEX_CLASS_TERM);
+      out.writeShort(0);
+    } else {
+      Integer idx = classIndex.get(term.getClass());
+      if (idx == null) {
+        throw new IllegalArgumentException("Term " + term + " is not part of a built-in vocabulary");
+      }
+      out.writeShort(idx);
+      out.writeShort(((Enum<?>) term).ordinal());
+    }
+  }
+
+  private static Term readTerm(DataInputStream in, Term[][] constants) throws IOException {
+    int cl = in.readShort();
+    int ordinal = in.readShort();
+    return cl == BIBTEX_CLASS_TERM ? BibTexTerm.CLASS_TERM : constants[cl][ordinal];
+  }
+
+  /**
+   * Loads the index from the classpath resource.
+   * @return the index or null if the resource is missing, unreadable or stale
+   */
+  static TermIndex load(long fingerprint, List<Class<? extends Enum<?>>> classes, Map<String, Function<String, Term>> families) {
+    try (InputStream in = PrecomputedIndex.class.getResourceAsStream(RESOURCE)) {
+      if (in == null) {
+        LOG.debug("No term index snapshot found");
+        return null;
+      }
+      return read(in, fingerprint, classes, families);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Cannot read term index snapshot, building the index instead", e);
+      return null;
+    }
+  }
+
+  /**
+   * @return the fingerprint of all term names the snapshot was generated from or null if it has another format
+   */
+  static Long termFingerprint(InputStream stream) throws IOException {
+    DataInputStream in = new DataInputStream(stream);
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      return null;
+    }
+    in.readLong();
+    return in.readLong();
+  }
+
+  /**
+   * @return the index or null if the snapshot was written for other vocabularies
+   */
+  static TermIndex read(InputStream stream, long fingerprint, List<Class<? extends Enum<?>>> classes,
+                        Map<String, Function<String, Term>> families) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      LOG.info("Ignoring term index snapshot of another format");
+      return null;
+    }
+    if (in.readLong() != fingerprint) {
+      LOG.info("Ignoring stale term index snapshot");
+      return null;
+    }
+    // the fingerprint of all names is only checked by tests
+    in.readLong();
+    int classCount = in.readInt();
+    if (classCount != classes.size()) {
+      return null;
+    }
+    Term[][] constants = new Term[classCount][];
+    for (int i = 0; i < classCount; i++) {
+      if (!in.readUTF().equals(classes.get(i).getName())) {
+        return null;
+      }
+      constants[i] = (Term[]) classes.get(i).getEnumConstants();
+      if (in.readShort() != constants[i].length) {
+        LOG.info("Ignoring stale term index snapshot");
+        return null;
+      }
+    }
+
+    Map<String, Term> terms = new LinkedHashMap<>();
+    TermHashTable termTable = readTable(in, constants, terms);
+    Map<String, Term> classTerms = new LinkedHashMap<>();
+    TermHashTable classTermTable = readTable(in, constants, classTerms);
+    if (termTable == null || classTermTable == null) {
+      LOG.info("Ignoring corrupt term index snapshot");
+      return null;
+    }
+    int count = in.readInt();
+    List<String> namespaces = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      namespaces.add(in.readUTF());
+    }
+    int collisionCount = in.readInt();
+    List<TermCollisionReport.Collision> collisions = new ArrayList<>(collisionCount);
+    for (int i = 0; i < collisionCount; i++) {
+      String key = in.readUTF();
+      collisions.add(new TermCollisionReport.Collision(key, readTerm(in, constants), readTerm(in, constants)));
+    }
+    return TermIndex.restore(termTable, classTermTable, namespaces, families, collisions);
+  }
+
+  private static TermHashTable readTable(DataInputStream in, Term[][] constants, Map<String, Term> entries) throws IOException {
+    int seed = in.readInt();
+    int slots = in.readInt();
+    int[] displacements = new int[in.readInt()];
+    for (int i = 0; i < displacements.length; i++) {
+      displacements[i] = in.readInt();
+    }
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      String key = in.readUTF();
+      entries.put(key, readTerm(in, constants));
+    }
+    return TermHashTable.restore(entries, seed, slots, displacements);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for term lookups taking longer than the threshold of the recording, 100 microseconds by default.
+ * Lookups of known names are orders of magnitude faster, slow ones usually create new terms or register vocabularies.
+ */
+@Name("org.gbif.dwc.terms.SlowLookup")
+@Label("Slow Term Lookup")
+@Category({"GBIF", "Darwin Core Terms"})
+@Threshold("100 us")
+@StackTrace(false)
+final class SlowLookupEvent extends Event {
+
+  static final String EXACT = "exact";
+  static final String NORMALISED = "normalised";
+  static final String BIBTEX = "bibtex";
+  static final String UNKNOWN = "unknown";
+
+  @Label("Name")
+  @Description("The name looked up")
+  String name;
+
+  @Label("Path")
+  @Description("How the term was resolved: exact, normalised, bibtex or unknown")
+  String path;
+
+  @Label("Term")
+  @Description("Qualified name of the term found")
+  String term;
+
+  /**
+   * Commits the event if the lookup took longer than the threshold.
+   */
+  void commit(String name, Term term) {
+    if (shouldCommit()) {
+      this.name = name;
+      this.term = term == null ? null : term.qualifiedName();
+      commit();
+    }
+  }
+}
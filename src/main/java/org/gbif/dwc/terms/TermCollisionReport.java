@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable report of all names that were registered for more than one term of a {@link TermFactory},
+ * see {@link TermFactory#collisionReport()}.
+ * The earlier registered term keeps the name, so the later one is not known by it.
+ */
+public final class TermCollisionReport {
+
+  private final List<Collision> collisions;
+
+  TermCollisionReport(List<Collision> collisions) {
+    this.collisions = List.copyOf(collisions);
+  }
+
+  /**
+   * A single name claimed by two terms.
+   */
+  public static final class Collision {
+    private final String key;
+    private final Term kept;
+    private final Term dropped;
+
+    Collision(String key, Term kept, Term dropped) {
+      this.key = key;
+      this.kept = kept;
+      this.dropped = dropped;
+    }
+
+    /**
+     * @return the name both terms were registered with
+     */
+    public String getKey() {
+      return key;
+    }
+
+    /**
+     * @return the term known by the name
+     */
+    public Term getKept() {
+      return kept;
+    }
+
+    /**
+     * @return the term registered later that is not known by the name
+     */
+    public Term getDropped() {
+      return dropped;
+    }
+
+    /**
+     * @return the vocabulary enumeration or other class of the dropped term
+     */
+    public Class<?> getSource() {
+      return dropped instanceof Enum ? ((Enum<?>) dropped).getDeclaringClass() : dropped.getClass();
+    }
+
+    public boolean isClass() {
+      return dropped.isClass();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Collision)) return false;
+      Collision that = (Collision) o;
+      return key.equals(that.key) && kept.equals(that.kept) && dropped.equals(that.dropped);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(key, kept, dropped);
+    }
+
+    @Override
+    public String toString() {
+      return (isClass() ? "Class" : "Property") + " terms " + kept + " and " + dropped + " are both known as \"" + key
+          + "\", keeping " + kept;
+    }
+  }
+
+  /**
+   * @return all collisions in the order they occurred
+   */
+  public List<Collision> getCollisions() {
+    return collisions;
+  }
+
+  /**
+   * @return all collisions of the name, usually at most one as collisions of property and class terms are distinct
+   */
+  public List<Collision> getCollisions(String key) {
+    List<Collision> matches = new ArrayList<>();
+    for (Collision c : collisions) {
+      if (c.key.equals(key)) {
+        matches.add(c);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * @return all collisions that dropped a term of the given vocabulary
+   */
+  public List<Collision> getCollisions(Class<?> source) {
+    List<Collision> matches = new ArrayList<>();
+    for (Collision c : collisions) {
+      if (c.getSource() == source) {
+        matches.add(c);
+      }
+    }
+    return matches;
+  }
+
+  public int size() {
+    return collisions.size();
+  }
+
+  public boolean isEmpty() {
+    return collisions.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return collisions.size() + " term name collisions";
+  }
+}
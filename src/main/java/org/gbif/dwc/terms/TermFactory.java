@@ -15,13 +15,34 @@
  */
 package org.gbif.dwc.terms;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Locale;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,87 +50,675 @@ import org.slf4j.LoggerFactory;
 /**
  * Simple, threadsafe factory for terms that knows about all ConceptTerms of this library and keeps singletons for
  * all unknown Term instances.
+ *
+ * Known terms are kept in an immutable {@link TermIndex} which is replaced as a whole on every registration,
+ * so lookups never block. Unknown terms created at runtime are kept in a concurrent registry
+ * which can be bounded, see {@link #setUnknownTermCapacity(int)}.
  */
 public class TermFactory {
 
   private static final Logger LOG = LoggerFactory.getLogger(TermFactory.class);
-  private static final Pattern NON_ALPHA_NUM_PATTERN = Pattern.compile("[^a-zA-Z0-9#-]+");
-  private static TermFactory singleton;
-  private static boolean initialized = false;
+  private static volatile TermFactory singleton;
   private static final Object LOCK = new Object();
 
-  private final Map<String, Term> terms = new HashMap<>();
-  private final Map<String, Term> classTerms = new HashMap<>();
-  private final Set<Class<? extends Enum<?>>> registeredEnumClasses = new HashSet<>();
+  /**
+   * System property with the maximum number of unknown terms the factory keeps, see {@link #setUnknownTermCapacity(int)}.
+   */
+  public static final String UNKNOWN_TERM_CAPACITY_PROPERTY = "org.gbif.dwc.terms.unknownTermCapacity";
+
+  /**
+   * System property with the maximum number of header rows cached by {@link #resolveHeader(CharSequence...)}.
+   */
+  public static final String HEADER_CACHE_CAPACITY_PROPERTY = "org.gbif.dwc.terms.headerCacheCapacity";
+
+  /**
+   * System property to register built-in vocabularies only when first needed, see {@link #isLazy()}.
+   */
+  public static final String LAZY_VOCABULARIES_PROPERTY = "org.gbif.dwc.terms.lazyVocabularies";
+
+  /**
+   * System property with the number of most frequent unknown names tracked by {@link #metrics()}.
+   */
+  public static final String TOP_UNKNOWN_NAMES_PROPERTY = "org.gbif.dwc.terms.topUnknownNames";
+
+  /**
+   * System property to export the metrics of the factory instance via JMX as {@value #MBEAN_NAME}.
+   */
+  public static final String JMX_PROPERTY = "org.gbif.dwc.terms.jmx";
+
+  /**
+   * System property with the path of a file written by {@link #exportUnknownTerms(OutputStream)}
+   * to be imported when the instance is created. A missing file is ignored.
+   */
+  public static final String UNKNOWN_TERMS_FILE_PROPERTY = "org.gbif.dwc.terms.unknownTermsFile";
+
+  public static final String MBEAN_NAME = "org.gbif.dwc.terms:type=TermFactory";
+
+  // the factory an overlay falls back to, null for all other factories
+  private final TermFactory parent;
+  private final boolean lazy;
+  // number of built-in vocabularies registered, guarded by this
+  private volatile int loadedVocabularies;
+  private volatile TermIndex index = TermIndex.EMPTY;
+  // the last fuzzy matcher built, reused as long as the epoch does not change
+  private volatile FuzzyTermMatcher fuzzyMatcher;
+  // epoch of all parents when the header cache of an overlay was last validated
+  private volatile long headerCacheEpoch;
+  private final HeaderCache headerCache = new HeaderCache(Integer.getInteger(HEADER_CACHE_CAPACITY_PROPERTY, 1000));
+  private final LookupMetrics metrics = new LookupMetrics(Integer.getInteger(TOP_UNKNOWN_NAMES_PROPERTY, 100), headerCache);
+  private final UnknownTermRegistry unknownTerms = new UnknownTermRegistry(Integer.getInteger(UNKNOWN_TERM_CAPACITY_PROPERTY, 0));
+  private final Set<Class<? extends Enum<?>>> registeredEnumClasses = ConcurrentHashMap.newKeySet();
+  // term enumerations of service providers, registered after all built-in vocabularies
+  private final List<TermProvider.TermEnum> providerEnums;
 
   public static TermFactory instance() {
-    if (initialized) {
-      return singleton;
+    TermFactory tf = singleton;
+    if (tf != null) {
+      return tf;
     }
 
     synchronized (LOCK) {
       if (singleton == null) {
         LOG.debug("Building new TermFactory instance");
-        singleton = new TermFactory();
-        singleton.loadKnownTerms();
-        initialized = true;
+        FactoryInitEvent event = new FactoryInitEvent();
+        event.begin();
+        tf = new TermFactory(Boolean.getBoolean(LAZY_VOCABULARIES_PROPERTY), providerEnums());
+        event.precomputed = tf.loadKnownTerms();
+        if (event.shouldCommit()) {
+          TermIndex index = tf.index;
+          event.lazy = tf.lazy;
+          event.vocabularies = tf.registeredEnumClasses.size();
+          event.names = index.table(false).size() + index.table(true).size();
+          event.collisions = index.collisions().size();
+          event.commit();
+        }
+        if (Boolean.getBoolean(JMX_PROPERTY)) {
+          tf.registerMBean(MBEAN_NAME);
+        }
+        String unknownTermsFile = System.getProperty(UNKNOWN_TERMS_FILE_PROPERTY);
+        if (!isNullOrEmpty(unknownTermsFile) && Files.isRegularFile(Paths.get(unknownTermsFile))) {
+          tf.importUnknownTerms(Paths.get(unknownTermsFile));
+        }
+        singleton = tf;
       }
     }
 
     return singleton;
   }
 
-  private TermFactory() {
+  TermFactory(boolean lazy) {
+    this(lazy, Collections.emptyList());
+  }
+
+  TermFactory(boolean lazy, List<TermProvider.TermEnum> providerEnums) {
+    this.parent = null;
+    this.lazy = lazy;
+    this.providerEnums = List.copyOf(providerEnums);
+  }
+
+  private TermFactory(TermFactory parent) {
+    this.parent = parent;
+    this.lazy = parent.lazy;
+    this.providerEnums = Collections.emptyList();
+    // vocabularies are registered with the parent
+    this.loadedVocabularies = VOCABULARIES.size();
+  }
+
+  /**
+   * Creates a lightweight child factory for resolving the terms of a single dataset,
+   * for example with aliases only used by one publisher.
+   *
+   * The overlay resolves names just as this factory does, but terms registered with the overlay
+   * and unknown terms it creates are only known to the overlay, so this factory is never modified by it.
+   * Names registered with the overlay take precedence over the same names known to this factory.
+   * The overlay shares the immutable index of this factory without locking or copying it,
+   * and changes to this factory are immediately visible to the overlay.
+   * An overlay that is not used anymore is simply garbage collected.
+   */
+  public TermFactory overlay() {
+    return new TermFactory(this);
+  }
+
+  /**
+   * @return the term enumerations of all {@link TermProvider}s found on the classpath
+   */
+  private static List<TermProvider.TermEnum> providerEnums() {
+    List<TermProvider.TermEnum> termEnums = new ArrayList<>();
+    Iterator<TermProvider> providers = ServiceLoader.load(TermProvider.class).iterator();
+    while (true) {
+      try {
+        if (!providers.hasNext()) {
+          break;
+        }
+        TermProvider provider = providers.next();
+        LOG.debug("Found term provider {}", provider.getClass().getName());
+        termEnums.addAll(provider.termEnums());
+      } catch (ServiceConfigurationError e) {
+        LOG.warn("Cannot load term provider", e);
+      }
+    }
+    return termEnums;
+  }
+
+  /**
+   * Exports the metrics of this factory via JMX, logging a warning if that fails.
+   */
+  void registerMBean(String name) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(name));
+    } catch (JMException e) {
+      LOG.warn("Cannot export TermFactory metrics as {}", name, e);
+    }
+  }
+
+  /**
+   * @return a snapshot of the lookup counters of this factory
+   */
+  public TermFactoryMetrics metrics() {
+    return new TermFactoryMetrics(metrics);
+  }
+
+  /**
+   * A lazy factory starts without any vocabulary and registers the built-in vocabularies on demand,
+   * so short lived processes only load the term classes they use.
+   * Once a name is not found all vocabularies are registered before the name is resolved any further,
+   * so lookups return exactly the same terms as with all vocabularies registered upfront.
+   *
+   * Lazy registration is enabled with the system property {@value #LAZY_VOCABULARIES_PROPERTY}.
+   */
+  public boolean isLazy() {
+    return lazy;
+  }
+
+  /**
+   * A built-in vocabulary with the namespace and prefixes it is known by, so it can be registered lazily
+   * without loading its class before.
+   */
+  private static final class BuiltInVocabulary {
+    private final String className;
+    private final String namespace;
+    private final String prefix;
+    private final Registration registration;
+    private final String[] altPrefixes;
+    // created when the vocabulary is first registered, guarded by this
+    private TermProvider.TermEnum termEnum;
+    // names of all terms, collected once and shared by all factories
+    private volatile TermIndex.Fragment fragment;
+
+    private BuiltInVocabulary(String className, String namespace, String prefix, Registration registration, String... altPrefixes) {
+      this.className = TermFactory.class.getPackage().getName() + "." + className;
+      this.namespace = namespace;
+      this.prefix = prefix;
+      this.registration = registration;
+      this.altPrefixes = altPrefixes;
+    }
+
+    /**
+     * @return the term enumeration to register, loading its class, not to be called for the family
+     */
+    private synchronized TermProvider.TermEnum termEnum() {
+      if (termEnum == null) {
+        termEnum = new TermProvider.TermEnum(termClass(this), registration == Registration.QUALIFIED_NAMES, altPrefixes);
+      }
+      return termEnum;
+    }
+
+    /**
+     * @return the names of all terms, collected on first use and never for the family
+     */
+    private TermIndex.Fragment fragment() {
+      TermIndex.Fragment f = fragment;
+      if (f == null) {
+        f = TermFactory.fragment(termEnum());
+        fragment = f;
+      }
+      return f;
+    }
+
+    /**
+     * @return true if a term of this vocabulary is registered exactly under the name, loading its class
+     */
+    private boolean contains(String name, boolean isClass) {
+      return registration != Registration.FAMILY && fragment().containsKey(name, isClass);
+    }
+
+    /**
+     * @return true if the name is qualified or prefixed with this vocabulary
+     */
+    private boolean matches(String name) {
+      if (name.startsWith(namespace) || isPrefixed(name, prefix)) {
+        return true;
+      }
+      for (String pre : altPrefixes) {
+        if (isPrefixed(name, pre)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static boolean isPrefixed(String name, String prefix) {
+      return name.length() > prefix.length() && name.charAt(prefix.length()) == ':' && name.startsWith(prefix);
+    }
+  }
+
+  private enum Registration {
+    ALL_NAMES,
+    QUALIFIED_NAMES,
+    FAMILY
+  }
+
+  private static BuiltInVocabulary vocabulary(String className, String namespace, String prefix, String... altPrefixes) {
+    return new BuiltInVocabulary(className, namespace, prefix, Registration.ALL_NAMES, altPrefixes);
+  }
+
+  /**
+   * All built-in vocabularies in the order they are registered, which decides about terms sharing a name.
+   * Term classes are given by name so they are only loaded when registered.
+   */
+  private static final List<BuiltInVocabulary> VOCABULARIES = List.of(
+      vocabulary("DwcTerm", "http://rs.tdwg.org/dwc/terms/", "dwc"),
+      vocabulary("DcTerm", "http://purl.org/dc/terms/", "dcterms", "dct"),
+      vocabulary("GbifTerm", "http://rs.gbif.org/terms/1.0/", "gbif"),
+      vocabulary("GbifInternalTerm", "http://rs.gbif.org/terms/internal/", "gbint"),
+      vocabulary("IucnTerm", "http://iucn.org/terms/", "iucn"),
+      vocabulary("DcElement", "http://purl.org/dc/elements/1.1/", "dc"),
+      vocabulary("AcefTerm", "https://terms.catalogueoflife.org/acef/", "acef", "http://rs.col.plus/terms/acef/"),
+      vocabulary("PlaziTerm", "http://plazi.org/terms/1.0/", "plazi"),
+      vocabulary("GadmTerm", "http://rs.gbif.org/terms/gadm/3.0/", "gadm"),
+      vocabulary("DwcaTerm", "http://rs.tdwg.org/dwc/text/", "dwca"),
+
+      // Audubon core
+      vocabulary("AcTerm", "http://rs.tdwg.org/ac/terms/", "ac"),
+      vocabulary("ExifTerm", "http://ns.adobe.com/exif/1.0/", "exif"),
+      vocabulary("IptcTerm", "http://iptc.org/std/Iptc4xmpExt/2008-02-29/", "iptc"),
+      vocabulary("PhotoshopTerm", "http://ns.adobe.com/photoshop/1.0/", "photoshop"),
+      vocabulary("XmpTerm", "http://ns.adobe.com/xap/1.0/", "xmp", "adobe"),
+      vocabulary("XmpRightsTerm", "http://ns.adobe.com/xap/1.0/rights/", "xmp", "xmp", "adobe"), // the same as above, but luckily different simple term names
+
+      // DWCA extensions
+      vocabulary("ChronoTerm", "http://rs.tdwg.org/chrono/terms/", "chrono"),
+      vocabulary("GbifDnaTerm", "http://rs.gbif.org/terms/", "gbifdna"),
+      vocabulary("GbifMiqeTerm", "http://rs.gbif.org/terms/miqe/", "gbifmiqe"),
+      vocabulary("GermplasmTerm", "http://purl.org/germplasm/germplasmTerm#", "germplasm"),
+      vocabulary("GgbnTerm", "http://data.ggbn.org/schemas/ggbn/terms/", "ggbn"),
+      vocabulary("MixsTerm", "https://w3id.org/mixs/", "mixs"),
+      vocabulary("ObisTerm", "http://rs.iobis.org/obis/terms/", "obis"),
+      vocabulary("Wgs84GeoPositioningTerm", "http://www.w3.org/2003/01/geo/wgs84_pos#", "wgs84geopositioning"),
+      vocabulary("EcoTerm", "http://rs.tdwg.org/eco/terms/", "eco"),
+
+      new BuiltInVocabulary("DwcaTerm", "http://rs.tdwg.org/dwc/text/", "dwca", Registration.QUALIFIED_NAMES),
+      new BuiltInVocabulary("BibTexTerm", BibTexTerm.NS, BibTexTerm.PREFIX, Registration.FAMILY)
+  );
+
+  private static void loadFamily(TermIndex.Builder builder) {
+    builder.add(BibTexTerm.CLASS_TERM);
+    builder.addNamespace(BibTexTerm.CLASS_TERM);
+    families().forEach(builder::addFamily);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Class<? extends Enum<?>> termClass(BuiltInVocabulary vocabulary) {
+    try {
+      return (Class<? extends Enum<?>>) Class.forName(vocabulary.className);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("Missing term class " + vocabulary.className, e);
+    }
+  }
+
+  /**
+   * @return factories for the terms of namespace families
+   */
+  private static Map<String, Function<String, Term>> families() {
+    Map<String, Function<String, Term>> families = new LinkedHashMap<>();
+    families.put(BibTexTerm.NS, BibTexTerm::buildFromURI);
+    families.put(BibTexTerm.PREFIX + ":", BibTexTerm::buildFromPrefix);
+    return families;
+  }
+
+  /**
+   * @return all built-in term enums in registration order
+   */
+  static List<Class<? extends Enum<?>>> vocabularyClasses() {
+    Set<Class<? extends Enum<?>>> classes = new LinkedHashSet<>();
+    for (BuiltInVocabulary v : VOCABULARIES) {
+      if (v.registration != Registration.FAMILY) {
+        classes.add(termClass(v));
+      }
+    }
+    return new ArrayList<>(classes);
+  }
+
+  /**
+   * Fingerprint of the built-in vocabulary definitions, checked on every start to detect a stale precomputed index.
+   * It only covers what is declared here and does not load any vocabulary class.
+   */
+  static long vocabularyFingerprint() {
+    long h = 0xcbf29ce484222325L;
+    for (BuiltInVocabulary v : VOCABULARIES) {
+      h = fingerprint(h, v.className);
+      h = fingerprint(h, v.registration.name());
+      for (String pre : v.altPrefixes) {
+        h = fingerprint(h, pre);
+      }
+    }
+    return h;
+  }
+
+  /**
+   * Fingerprint of every name of all built-in terms, computed when the precomputed index is generated
+   * and stored with it, so tests can verify the shipped snapshot against the vocabularies.
+   */
+  static long termFingerprint() {
+    long h = 0xcbf29ce484222325L;
+    for (BuiltInVocabulary v : VOCABULARIES) {
+      if (v.registration == Registration.FAMILY) {
+        h = fingerprint(h, BibTexTerm.CLASS_TERM);
+      } else {
+        for (Enum<?> e : termClass(v).getEnumConstants()) {
+          h = fingerprint(h, e.name());
+          h = fingerprint(h, (Term) e);
+        }
+      }
+    }
+    return h;
+  }
+
+  private static long fingerprint(long h, Term term) {
+    h = fingerprint(h, term.simpleName());
+    h = fingerprint(h, term.prefixedName());
+    h = fingerprint(h, term.qualifiedName());
+    h = fingerprint(h, String.valueOf(term.isClass()));
+    if (term instanceof AlternativeNames) {
+      for (String alt : ((AlternativeNames) term).alternativeNames()) {
+        h = fingerprint(h, alt);
+      }
+    }
+    return h;
+  }
+
+  /**
+   * FNV-1a over all characters and a separator.
+   */
+  private static long fingerprint(long h, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      h = (h ^ value.charAt(i)) * 0x100000001b3L;
+    }
+    return (h ^ 0xFFFF) * 0x100000001b3L;
+  }
+
+  /**
+   * @return the current index
+   */
+  TermIndex index() {
+    return index;
+  }
+
+  /**
+   * @return true if the precomputed index of built-in vocabularies was used
+   */
+  synchronized boolean loadKnownTerms() {
+    if (lazy) {
+      return false;
+    }
+    // use the index precomputed at build time if it is still up to date
+    List<Class<? extends Enum<?>>> classes = vocabularyClasses();
+    TermIndex precomputed = PrecomputedIndex.load(vocabularyFingerprint(), classes, families());
+    if (precomputed != null) {
+      registeredEnumClasses.addAll(classes);
+      loadedVocabularies = VOCABULARIES.size();
+      if (providerEnums.isEmpty()) {
+        publish(precomputed);
+      } else {
+        TermIndex.Builder builder = precomputed.toBuilder();
+        register(builder, providerEnums);
+        publish(builder.build());
+      }
+      return true;
+    }
+    loadVocabularies(VOCABULARIES.size());
+    return false;
   }
 
-  private void loadKnownTerms() {
-    registerTermEnum(DwcTerm.class);
-    registerTermEnum(DcTerm.class, "dct");
-    registerTermEnum(GbifTerm.class);
-    registerTermEnum(GbifInternalTerm.class);
-    registerTermEnum(IucnTerm.class);
-    registerTermEnum(DcElement.class);
-    registerTermEnum(AcefTerm.class, "http://rs.col.plus/terms/acef/");
-    registerTermEnum(PlaziTerm.class);
-    registerTermEnum(GadmTerm.class);
-    registerTermEnum(DwcaTerm.class);
+  /**
+   * Registers all built-in vocabularies up to the given number that are not registered yet.
+   */
+  private synchronized void loadVocabularies(int upTo) {
+    if (loadedVocabularies >= upTo) {
+      return;
+    }
+    TermIndex.Builder builder = index.toBuilder();
+    List<TermProvider.TermEnum> termEnums = new ArrayList<>();
+    boolean family = false;
+    for (int i = loadedVocabularies; i < upTo; i++) {
+      BuiltInVocabulary v = VOCABULARIES.get(i);
+      if (v.registration == Registration.FAMILY) {
+        // always the last built-in vocabulary
+        family = true;
+      } else {
+        termEnums.add(v.termEnum());
+      }
+    }
+    register(builder, termEnums);
+    if (family) {
+      loadFamily(builder);
+    }
+    if (upTo == VOCABULARIES.size()) {
+      register(builder, providerEnums);
+    }
+    loadedVocabularies = upTo;
+    // lazily registered vocabularies resolve every name just as before, so cached headers stay valid
+    publish(builder.build(), !lazy);
+  }
 
-    // Audubon core
-    registerTermEnum(AcTerm.class);
-    registerTermEnum(ExifTerm.class);
-    registerTermEnum(IptcTerm.class);
-    registerTermEnum(PhotoshopTerm.class);
-    registerTermEnum(XmpTerm.class, "adobe");
-    registerTermEnum(XmpRightsTerm.class, "xmp", "adobe"); // the same as above, but luckily different simple term names
+  /**
+   * Registers all built-in vocabularies. Other terms are only registered after all of them,
+   * so lazy registration cannot change which term is kept for a shared name.
+   */
+  private void loadAllVocabularies() {
+    if (parent != null) {
+      parent.loadAllVocabularies();
+    } else if (loadedVocabularies < VOCABULARIES.size()) {
+      loadVocabularies(VOCABULARIES.size());
+    }
+  }
 
-    // DWCA extensions
-    registerTermEnum(ChronoTerm.class);
-    registerTermEnum(GbifDnaTerm.class);
-    registerTermEnum(GbifMiqeTerm.class);
-    registerTermEnum(GermplasmTerm.class);
-    registerTermEnum(GgbnTerm.class);
-    registerTermEnum(MixsTerm.class);
-    registerTermEnum(ObisTerm.class);
-    registerTermEnum(Wgs84GeoPositioningTerm.class);
-    registerTermEnum(EcoTerm.class);
+  /**
+   * Lazily registers more vocabularies in their usual order for a name that was not found, all in a single rebuild:
+   * all up to the first vocabulary the name is qualified or prefixed with or that has a term registered exactly under it.
+   * The names of vocabularies not registered yet are checked without building an index,
+   * so a name no vocabulary knows exactly registers all of them at once.
+   *
+   * @return false if all vocabularies were registered already
+   */
+  private synchronized boolean loadVocabulariesFor(String name, boolean isClass) {
+    if (parent != null) {
+      return parent.loadVocabulariesFor(name, isClass);
+    }
+    int loaded = loadedVocabularies;
+    if (loaded >= VOCABULARIES.size()) {
+      return false;
+    }
+    int upTo = VOCABULARIES.size();
+    for (int i = loaded; i < VOCABULARIES.size(); i++) {
+      BuiltInVocabulary v = VOCABULARIES.get(i);
+      if (v.matches(name) || v.contains(name, isClass)) {
+        upTo = i + 1;
+        break;
+      }
+    }
+    loadVocabularies(upTo);
+    return true;
+  }
 
-    registerQualifiedTermEnum(DwcaTerm.class);
-    addTerm(BibTexTerm.CLASS_TERM);
+  /**
+   * @return the number of built-in vocabularies registered so far
+   */
+  int loadedVocabularies() {
+    return loadedVocabularies;
+  }
+
+  /**
+   * @return the namespace and prefix of every built-in vocabulary in registration order
+   */
+  static List<String[]> vocabularyNamespaces() {
+    List<String[]> namespaces = new ArrayList<>();
+    for (BuiltInVocabulary v : VOCABULARIES) {
+      namespaces.add(new String[]{v.namespace, v.prefix});
+    }
+    return namespaces;
+  }
+
+  /**
+   * Makes a new index visible to all readers.
+   */
+  private void publish(TermIndex newIndex) {
+    publish(newIndex, true);
+  }
+
+  /**
+   * Makes a new index visible to all readers.
+   *
+   * @param clearHeaders false if the new index resolves every name just as the current one
+   */
+  private void publish(TermIndex newIndex, boolean clearHeaders) {
+    int newCollisions = newIndex.collisions().size() - index.collisions().size();
+    index = newIndex;
+    if (newCollisions > 0) {
+      LOG.info("{} term names were already taken by other terms, {} in total, see TermFactory.collisionReport()",
+          newCollisions, newIndex.collisions().size());
+    }
+    if (clearHeaders) {
+      // cached headers might resolve differently now
+      headerCache.clear();
+    }
+  }
+
+  /**
+   * The epoch increases with every registration that might change how names are resolved,
+   * including registrations with any parent of an overlay.
+   * Creating unknown terms keeps the epoch, as with an unbounded unknown term registry a new unknown term
+   * never changes the result for a name resolved before, it is only preferred over normalised matches
+   * for names not resolved so far. Results of findTerm can then be cached safely as long as the epoch does not change.
+   *
+   * With a limited {@link #setUnknownTermCapacity(int) capacity} this only holds for known terms and for the exact
+   * names of unknown terms, which always resolve to an equal term. An evicted unknown term that got garbage collected
+   * releases its normalised and alias names, which a later unknown term can take,
+   * so such a name can resolve to a different unknown term within the same epoch.
+   */
+  public long epoch() {
+    TermIndex i = index;
+    return parent == null ? i.epoch() : i.epoch() + parent.epoch();
+  }
+
+  /**
+   * Returns an immutable view of all terms known at the moment, which is never changed by later registrations.
+   * Lazily registered vocabularies are all registered first.
+   */
+  public TermIndexSnapshot snapshot() {
+    loadAllVocabularies();
+    return new TermIndexSnapshot(index, parent == null ? null : parent.snapshot());
+  }
+
+  /**
+   * Returns a matcher for misspelled names of all terms known at the moment.
+   * Building a matcher takes a while, so the last matcher built is reused as long as no term is registered.
+   *
+   * @param maxDistance maximum number of edits between a name and the name of a matching term, usually 1 or 2
+   */
+  public FuzzyTermMatcher fuzzyMatcher(int maxDistance) {
+    FuzzyTermMatcher matcher = fuzzyMatcher;
+    if (matcher == null || matcher.getMaxDistance() != maxDistance || matcher.epoch() != epoch()) {
+      matcher = new FuzzyTermMatcher(snapshot(), maxDistance);
+      fuzzyMatcher = matcher;
+    }
+    return matcher;
   }
 
   /**
    * @return the set of term enum classes that have been registered with this TermFactory
    */
   public Set<Class<? extends Enum<?>>> listRegisteredTermEnums() {
+    loadAllVocabularies();
+    if (parent != null) {
+      Set<Class<? extends Enum<?>>> classes = new LinkedHashSet<>(parent.listRegisteredTermEnums());
+      classes.addAll(registeredEnumClasses);
+      return Collections.unmodifiableSet(classes);
+    }
     return Collections.unmodifiableSet(registeredEnumClasses);
   }
 
-  public void registerTerm(Term term) {
-    addTerm(term);
+  /**
+   * @return true if the term enum class is registered with this factory or any parent
+   */
+  private boolean isRegistered(Class<?> termClass) {
+    return registeredEnumClasses.contains(termClass) || (parent != null && parent.isRegistered(termClass));
+  }
+
+  public synchronized void registerTerm(Term term) {
+    loadAllVocabularies();
+    TermIndex.Builder builder = builder();
+    builder.add(term);
+    publish(builder.build());
+  }
+
+  public synchronized void registerTerm(UnknownTerm term) {
+    loadAllVocabularies();
+    TermIndex.Builder builder = builder();
+    builder.add(term.qualifiedName(), term);
+    publish(builder.build());
+  }
+
+  /**
+   * Reports all names registered for more than one term, of which only the earliest registered term is known by the name.
+   * Collisions are not logged one by one, instead a single summary line is logged for every registration causing any.
+   * An overlay only reports collisions of names registered with itself.
+   *
+   * @return the collisions of all terms registered so far
+   */
+  public TermCollisionReport collisionReport() {
+    loadAllVocabularies();
+    return new TermCollisionReport(index.collisions());
+  }
+
+  /**
+   * Lists all names registered for a term, for example to offer them in a header mapping
+   * or to write the term with the name a publisher used.
+   * These are the simple, prefixed and qualified names, the names with alternative prefixes,
+   * alternative names and aliases as well as their normalised forms, in the order they were registered.
+   * Other names only resolve to the term by being normalised at lookup time.
+   *
+   * The names of all terms are indexed once, so after the first call this is a single map lookup.
+   * An overlay lists its own names first followed by the names known to its parent it does not override.
+   *
+   * @return all names resolving to the term or an empty list if the term is not registered
+   */
+  public List<String> aliasesOf(Term term) {
+    loadAllVocabularies();
+    TermIndex idx = index;
+    List<String> names = idx.aliases().get(term);
+    if (parent == null) {
+      return names;
+    }
+    Set<String> all = new LinkedHashSet<>(names);
+    for (String name : parent.aliasesOf(term)) {
+      if (idx.get(name, term.isClass()) == null) {
+        all.add(name);
+      }
+    }
+    return List.copyOf(all);
   }
 
-  public void registerTerm(UnknownTerm term) {
-    addTerm(term.qualifiedName(), term);
+  /**
+   * Registers an additional name for a term, for example a column name used by some publisher.
+   * If the name is already taken by another term the earlier term is kept,
+   * unless this factory is an {@link #overlay()} and the name is only known to its parent.
+   */
+  public synchronized void registerAlias(String alias, Term term) {
+    loadAllVocabularies();
+    TermIndex.Builder builder = builder();
+    builder.add(alias, term);
+    publish(builder.build());
   }
 
   /**
@@ -119,25 +728,10 @@ public class TermFactory {
    * @param altPrefixes alternative prefixes to be used to register simple prefixed term names
    */
   public synchronized <T extends Enum<?> & Term & AlternativeNames> void registerTermEnum(Class<T> termClass, String ... altPrefixes) {
-    if (registeredEnumClasses.contains(termClass)) {
-      LOG.debug("{} is already registered", termClass);
-    } else {
-      registeredEnumClasses.add(termClass);
-      for (T term : termClass.getEnumConstants()) {
-        // add regular term representations (simple, prefixed & qualified)
-        addTerm(term, altPrefixes);
-        // add alternatives
-        for (String alt : term.alternativeNames()) {
-          addTerm(alt, term);
-          if (!alt.startsWith("http") && !alt.contains(":")) {
-            addTerm(term.prefix() + ":" + alt, term);
-            addTerm(term.namespace().resolve(alt).toString(), term);
-            for (String pre : altPrefixes) {
-              addTerm(pre + ":" + alt, term);
-            }
-          }
-        }
-      }
+    loadAllVocabularies();
+    TermIndex.Builder builder = builder();
+    if (register(builder, List.of(TermProvider.TermEnum.of(termClass, altPrefixes)))) {
+      publish(builder.build());
     }
   }
 
@@ -145,68 +739,259 @@ public class TermFactory {
    * Registers all terms from a new term enumeration, but only adds their qualified and prefixed names.
    * This is to avoid clashes with other usually more important terms that should be known by their simple name.
    */
-  public <T extends Enum<?> & Term> void registerQualifiedTermEnum(Class<T> termClass) {
-    if (registeredEnumClasses.contains(termClass)) {
-      LOG.debug("{} is already registered", termClass);
-    } else {
-      registeredEnumClasses.add(termClass);
-      for (T term : termClass.getEnumConstants()) {
-        // add only the prefixed and qualified representation to avoid clashes
-        addTerm(term.prefixedName(), term);
-        addTerm(term.qualifiedName(), term);
+  public synchronized <T extends Enum<?> & Term> void registerQualifiedTermEnum(Class<T> termClass) {
+    loadAllVocabularies();
+    TermIndex.Builder builder = builder();
+    if (register(builder, List.of(TermProvider.TermEnum.qualifiedOnly(termClass)))) {
+      publish(builder.build());
+    }
+  }
+
+  /**
+   * Adds all term enumerations not registered yet to the builder in the given order.
+   * The names of each enumeration are collected and normalised in parallel and then added one enumeration after the other,
+   * so a name shared by several terms is kept for the term registered first, just as if all names were added sequentially.
+   *
+   * @return true if any term enumeration was added
+   */
+  private boolean register(TermIndex.Builder builder, List<TermProvider.TermEnum> termEnums) {
+    List<TermProvider.TermEnum> todo = new ArrayList<>();
+    Set<Class<?>> classes = new HashSet<>();
+    for (TermProvider.TermEnum te : termEnums) {
+      if (isRegistered(te.getTermClass()) || !classes.add(te.getTermClass())) {
+        LOG.debug("{} is already registered", te.getTermClass());
+      } else {
+        // initialise the enum class in this thread, so a class initialiser can never wait on a worker thread
+        te.getTermClass().getEnumConstants();
+        todo.add(te);
       }
     }
+    Stream<TermProvider.TermEnum> stream = todo.size() > 1 ? todo.parallelStream() : todo.stream();
+    List<TermIndex.Fragment> fragments = stream.map(TermFactory::builtInOrNewFragment).collect(Collectors.toList());
+    for (int i = 0; i < todo.size(); i++) {
+      registeredEnumClasses.add(todo.get(i).getTermClass());
+      builder.add(fragments.get(i));
+    }
+    return !todo.isEmpty();
   }
 
-  private void addTerm(Term term, String ... altPrefixes) {
-    addTerm(term.simpleName(), term);
-    addTerm(term.prefixedName(), term);
-    addTerm(term.qualifiedName(), term);
-    for (String pre : altPrefixes) {
-      addTerm(pre + ":" + term.simpleName(), term);
+  /**
+   * @return the shared fragment of a built-in vocabulary or otherwise a new one
+   */
+  private static TermIndex.Fragment builtInOrNewFragment(TermProvider.TermEnum termEnum) {
+    for (BuiltInVocabulary v : VOCABULARIES) {
+      if (v.registration != Registration.FAMILY && v.termEnum == termEnum) {
+        return v.fragment();
+      }
     }
+    return fragment(termEnum);
   }
 
   /**
-   * Checks whether a string is null or empty (after trimming).
+   * Collects all names of the terms of a single enumeration.
    */
-  private static boolean isNullOrEmpty(String s) {
-    return s == null || s.trim().isEmpty();
+  private static TermIndex.Fragment fragment(TermProvider.TermEnum termEnum) {
+    TermIndex.Fragment fragment = new TermIndex.Fragment();
+    Enum<?>[] constants = termEnum.getTermClass().getEnumConstants();
+    if (termEnum.isQualifiedOnly()) {
+      if (constants.length > 0) {
+        fragment.addNamespace((Term) constants[0]);
+      }
+      for (Enum<?> e : constants) {
+        Term term = (Term) e;
+        // add only the prefixed and qualified representation to avoid clashes
+        fragment.add(term.prefixedName(), term);
+        fragment.add(term.qualifiedName(), term);
+      }
+      return fragment;
+    }
+
+    String[] altPrefixes = termEnum.getAltPrefixes();
+    if (constants.length > 0) {
+      fragment.addNamespace((Term) constants[0], altPrefixes);
+    }
+    for (Enum<?> e : constants) {
+      Term term = (Term) e;
+      // add regular term representations (simple, prefixed & qualified)
+      fragment.add(term, altPrefixes);
+      // add alternatives
+      for (String alt : ((AlternativeNames) term).alternativeNames()) {
+        fragment.add(alt, term);
+        if (!alt.startsWith("http") && !alt.contains(":")) {
+          fragment.add(term.prefix() + ":" + alt, term);
+          fragment.add(term.namespace().resolve(alt).toString(), term);
+          for (String pre : altPrefixes) {
+            fragment.add(pre + ":" + alt, term);
+          }
+        }
+      }
+    }
+    return fragment;
   }
 
-  private void addTerm(String key, Term term) {
-    if (isNullOrEmpty(key)) {
-      return;
+  /**
+   * Checks whether a string is null or empty (after trimming).
+   */
+  static boolean isNullOrEmpty(CharSequence s) {
+    if (s != null) {
+      for (int i = 0; i < s.length(); i++) {
+        if (s.charAt(i) > ' ') {
+          return false;
+        }
+      }
     }
+    return true;
+  }
+
+  /**
+   * Limits the number of unknown terms the factory keeps.
+   * Once full, the least recently used unknown terms are evicted. Terms of registered vocabularies are never evicted.
+   * An evicted term that is still referenced elsewhere keeps being returned by the factory,
+   * so there is only ever one unknown term instance per name in use.
+   * Once garbage collected, its normalised and alias names can be taken by other unknown terms, see {@link #epoch()}.
+   *
+   * The initial capacity can be given with the system property {@value #UNKNOWN_TERM_CAPACITY_PROPERTY}.
+   *
+   * @param capacity maximum number of unknown terms to keep or 0 to keep all unknown terms forever
+   */
+  public void setUnknownTermCapacity(int capacity) {
+    unknownTerms.setCapacity(capacity);
+  }
+
+  /**
+   * @return the maximum number of unknown terms kept or 0 if unbounded
+   */
+  public int getUnknownTermCapacity() {
+    return unknownTerms.getCapacity();
+  }
+
+  /**
+   * @return the number of unknown terms currently kept by the factory
+   */
+  public int unknownTermCount() {
+    return unknownTerms.size();
+  }
+
+  /**
+   * @return the number of unknown terms evicted so far because the capacity was reached
+   */
+  public long unknownTermEvictions() {
+    return unknownTerms.evictions();
+  }
+
+  /**
+   * Writes all unknown terms currently kept by this factory, not the ones of a parent,
+   * in a compact binary format to be read again with {@link #importUnknownTerms(InputStream)},
+   * for example to warm up the factory of the next process with the unknown terms learned before.
+   * The stream is not closed.
+   */
+  public void exportUnknownTerms(OutputStream out) throws IOException {
+    List<String> names = new ArrayList<>();
+    List<Term> terms = new ArrayList<>();
+    unknownTerms.forEach((name, term) -> {
+      names.add(name);
+      terms.add(term);
+    });
+    UnknownTermFile.write(out, names, terms);
+  }
 
-    // keep class terms distinct
-    Map<String, Term> map = termMap(term.isClass());
-    if (map.containsKey(key)) {
-      Term t1 = map.get(key);
-      if (!t1.equals(term)) {
-        LOG.info("{} terms {} and {} are both known as \"{}\". Keeping only earlier {}", term.isClass() ? "Class" : "Property", map.get(key), term, key, map.get(key));
+  /**
+   * Restores unknown terms written by {@link #exportUnknownTerms(OutputStream)}, without parsing their names again.
+   * The whole batch is validated against the known terms at once, so the restored names resolve exactly as
+   * if they had been looked up with this factory: names of known property or class terms, names already taken by unknown terms
+   * and BibTeX terms of namespaces not known anymore are skipped.
+   * The stream is not closed.
+   *
+   * The file given with the system property {@value #UNKNOWN_TERMS_FILE_PROPERTY} is imported when the
+   * {@link #instance()} is created.
+   *
+   * @return the number of unknown terms restored
+   * @throws IOException if the stream cannot be read or is not an unknown term file
+   */
+  public int importUnknownTerms(InputStream in) throws IOException {
+    List<UnknownTermFile.Record> records = UnknownTermFile.read(in);
+    // validate all names at once against the complete index instead of resolving each name on its own
+    loadAllVocabularies();
+    Map<String, Term> terms = new LinkedHashMap<>();
+    Map<String, Term> classTerms = new LinkedHashMap<>();
+    for (UnknownTermFile.Record r : records) {
+      if (isNullOrEmpty(r.name) || isKnown(r.name)) {
+        continue;
       }
-    } else {
-      map.put(key, term);
-      // also add a normalised version
-      key = normaliseTerm(key);
-      if (!map.containsKey(key)) {
-        map.put(key, term);
+      try {
+        Term term;
+        if (r.family) {
+          Function<String, Term> family = family(r.qualifiedName);
+          if (family == null) {
+            continue;
+          }
+          term = family.apply(r.qualifiedName);
+        } else {
+          term = r.toTerm();
+        }
+        (r.isClass ? classTerms : terms).putIfAbsent(r.name, term);
+      } catch (IllegalArgumentException e) {
+        LOG.debug("Skip invalid unknown term {} of {}", r.qualifiedName, r.name, e);
       }
     }
+    Function<Term, String> alias = t -> t instanceof UnknownTerm ? t.qualifiedName() : t.prefixedName();
+    int restored = unknownTerms.addAll(terms, alias) + unknownTerms.addAll(classTerms, alias);
+    LOG.debug("Restored {} of {} unknown terms", restored, records.size());
+    return restored;
+  }
+
+  /**
+   * Unknown terms are kept by their exact name, which findTerm checks before trying the known terms of the other type,
+   * so a name resolving to a known property or class term must never be taken by an unknown term.
+   *
+   * @return true if the name resolves to a known property or class term
+   */
+  private boolean isKnown(String name) {
+    return getKnown(name, false) != null || getKnown(name, true) != null
+        || getNormalised(name, false) != null || getNormalised(name, true) != null;
   }
 
-  private Map<String, Term> termMap(boolean isClass) {
-    return isClass ? classTerms : terms;
+  private void importUnknownTerms(Path file) {
+    try (InputStream in = Files.newInputStream(file)) {
+      importUnknownTerms(in);
+    } catch (IOException e) {
+      LOG.warn("Cannot import unknown terms from {}", file, e);
+    }
+  }
+
+  /**
+   * Returns a dense integer identifier for a term, to index arrays or bitsets by term instead of hashing it.
+   * Identifiers are shared by all factories and cover the terms of all vocabularies, unknown terms and any other term,
+   * which is given a free identifier when first asked for. Equal terms share an identifier.
+   * Identifiers are assigned in the order terms are first used, so they must not be persisted or sent to other processes.
+   * The identifier of a term that is no enum constant is reused once the term is garbage collected,
+   * so keep the term as long as its identifier is used.
+   *
+   * @return the identifier of the term, at least 0 and below {@link #termIdCount()}
+   */
+  public static int id(Term term) {
+    return TermIds.id(Objects.requireNonNull(term, "term is required"));
+  }
+
+  /**
+   * @return the term with the given identifier or null if no term has that identifier (any longer), see {@link #id(Term)}
+   */
+  public static Term termOf(int id) {
+    return TermIds.termOf(id);
+  }
+
+  /**
+   * @return the highest term identifier assigned so far plus one, which grows as more terms are used
+   */
+  public static int termIdCount() {
+    return TermIds.size();
   }
 
   /**
    * @return a purely alphanumerical, lower cased term with all other characters replaced
    */
   public static String normaliseTerm(String term) {
-    return NON_ALPHA_NUM_PATTERN.matcher(term).replaceAll("")
-                .replaceFirst("^https?", "")
-                .toLowerCase(Locale.ROOT); // remove http(s)
+    return TermNormaliser.normalise(term);
   }
 
   /**
@@ -224,28 +1009,172 @@ public class TermFactory {
    * instance is created.
    */
   public Term findTerm(final String termName) throws IllegalArgumentException {
+    SlowLookupEvent event = new SlowLookupEvent();
+    event.begin();
+    Term t = find(termName, event, false);
+    event.commit(termName, t);
+    return t;
+  }
+
+  /**
+   * This method works just as findTerm(final String termName), but returns null for clearly bad term names
+   * instead of throwing an IllegalArgumentException, so names of untrusted input are rejected cheaply.
+   *
+   * @return the term or null if no term can be built for the name
+   */
+  public Term findTermOrNull(final String termName) {
+    if (isNullOrEmpty(termName)) {
+      return null;
+    }
+    SlowLookupEvent event = new SlowLookupEvent();
+    event.begin();
+    Term t = find(termName, event, true);
+    event.commit(termName, t);
+    return t;
+  }
+
+  /**
+   * @param lenient if true null is returned for bad term names instead of throwing an IllegalArgumentException
+   */
+  private Term find(final String termName, SlowLookupEvent event, boolean lenient) throws IllegalArgumentException {
     // First try an exact match.
-    if (terms.containsKey(termName)) {
-      return terms.get(termName);
+    Term t = get(termName, false);
+    while (t == null && lazy && loadVocabulariesFor(termName, false)) {
+      t = get(termName, false);
+    }
+    if (t != null) {
+      metrics.hit(termName, t, false);
+      event.path = SlowLookupEvent.EXACT;
+      return t;
     }
 
     // Try class term
-    Term t = findTermOnly(termName, true);
+    t = findTermOnly(termName, true, event);
     if (t == null) {
       // Try property term
-      t = findTermOnly(termName, false);
+      t = findTermOnly(termName, false, event);
     }
     // create new term if needed
     if (t == null) {
-      if (termName.startsWith(BibTexTerm.NS) || termName.startsWith(BibTexTerm.PREFIX + ":")) {
-        t = createBibtexTerm(termName, termName.startsWith(BibTexTerm.NS));
+      Function<String, Term> family = family(termName);
+      if (family != null) {
+        event.path = SlowLookupEvent.BIBTEX;
+        t = createFamilyTerm(termName, family, lenient);
       } else {
-        t = createUnknownTerm(termName, false);
+        event.path = SlowLookupEvent.UNKNOWN;
+        t = createUnknownTerm(termName, false, lenient);
       }
     }
     return t;
   }
 
+  /**
+   * This method works just as findTerm(final String termName) but accepts any char sequence,
+   * for example a reused StringBuilder or a CharBuffer.
+   * Known property terms are resolved without creating a String.
+   */
+  public Term findTerm(final CharSequence termName) throws IllegalArgumentException {
+    if (termName instanceof String) {
+      return findTerm((String) termName);
+    }
+    Term t = getKnown(termName);
+    if (t != null) {
+      metrics.hit(termName, t, false);
+      return t;
+    }
+    return findTerm(termName.toString());
+  }
+
+  /**
+   * This method works just as findTerm(final String termName) but takes the name as UTF-8 encoded bytes.
+   * Known property terms are resolved without decoding the bytes into a String.
+   */
+  public Term findTerm(final byte[] utf8, int offset, int length) throws IllegalArgumentException {
+    return findTerm(ByteBuffer.wrap(utf8, offset, length));
+  }
+
+  /**
+   * This method works just as findTerm(final String termName) but takes the name as UTF-8 encoded bytes
+   * between the position and the limit of the buffer, which can be a direct or memory mapped buffer.
+   * The position of the buffer is not changed.
+   * Known property terms are resolved without decoding the bytes into a String.
+   */
+  public Term findTerm(final ByteBuffer utf8) throws IllegalArgumentException {
+    Term t = getKnown(utf8, utf8.position(), utf8.limit());
+    if (t != null) {
+      metrics.hit(null, t, false);
+      return t;
+    }
+    byte[] bytes = new byte[utf8.remaining()];
+    utf8.duplicate().get(bytes);
+    return findTerm(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Resolves all columns of a header row, each just as findTerm(final String termName) does.
+   * Blank columns resolve to null.
+   *
+   * Resolved headers are cached by a fingerprint of all their columns,
+   * so resolving a header seen before costs a single hash lookup.
+   *
+   * @return a new array with the term of each column
+   */
+  public Term[] resolveHeader(final CharSequence... columns) throws IllegalArgumentException {
+    if (parent != null) {
+      // headers cached by an overlay might resolve differently once any parent changed
+      long parentEpoch = parent.epoch();
+      if (parentEpoch != headerCacheEpoch) {
+        headerCache.clear();
+        headerCacheEpoch = parentEpoch;
+      }
+    }
+    Term[] terms = headerCache.get(columns);
+    if (terms == null) {
+      long generation = headerCache.generation();
+      terms = new Term[columns.length];
+      for (int i = 0; i < columns.length; i++) {
+        terms[i] = isNullOrEmpty(columns[i]) ? null : findTerm(columns[i]);
+      }
+      headerCache.put(columns, terms, generation);
+    }
+    return terms;
+  }
+
+  /**
+   * Resolves all columns of a header row, see {@link #resolveHeader(CharSequence...)}.
+   */
+  public Term[] resolveHeader(final List<? extends CharSequence> columns) throws IllegalArgumentException {
+    return resolveHeader(columns.toArray(new CharSequence[0]));
+  }
+
+  /**
+   * Limits the number of header rows cached by {@link #resolveHeader(CharSequence...)}.
+   * The initial capacity can be given with the system property {@value #HEADER_CACHE_CAPACITY_PROPERTY}.
+   *
+   * @param capacity maximum number of headers to cache, 0 to disable caching
+   */
+  public void setHeaderCacheCapacity(int capacity) {
+    headerCache.setCapacity(capacity);
+  }
+
+  public int getHeaderCacheCapacity() {
+    return headerCache.getCapacity();
+  }
+
+  /**
+   * @return the number of headers resolved from the cache
+   */
+  public long headerCacheHits() {
+    return headerCache.hits();
+  }
+
+  /**
+   * @return the number of headers that had to be resolved column by column
+   */
+  public long headerCacheMisses() {
+    return headerCache.misses();
+  }
+
   /**
    * This method works just as findTerm(final String termName) but restricts
    * the results to just property terms.
@@ -271,49 +1200,222 @@ public class TermFactory {
       return null;
     }
 
-    Term t = findTermOnly(termName, isClassTerm);
+    SlowLookupEvent event = new SlowLookupEvent();
+    event.begin();
+    Term t = find(termName, isClassTerm, event);
+    event.commit(termName, t);
+    return t;
+  }
+
+  private Term find(final String termName, boolean isClassTerm, SlowLookupEvent event) throws IllegalArgumentException {
+    if (lazy) {
+      Term t = get(termName, isClassTerm);
+      while (t == null && loadVocabulariesFor(termName, isClassTerm)) {
+        t = get(termName, isClassTerm);
+      }
+      if (t != null) {
+        metrics.hit(termName, t, false);
+        event.path = SlowLookupEvent.EXACT;
+        return t;
+      }
+    }
+    Term t = findTermOnly(termName, isClassTerm, event);
     // create new term if needed
     if (t == null) {
-      t = createUnknownTerm(termName, isClassTerm);
+      event.path = SlowLookupEvent.UNKNOWN;
+      t = createUnknownTerm(termName, isClassTerm, false);
     }
     return t;
   }
 
+  /**
+   * Looks up a known property or class term just as findTerm(final String termName) does,
+   * but never creates a new term and ignores the unknown terms created so far.
+   * Lookups have no side effects and found terms are resolved without allocating any objects,
+   * so they are meant for validating names.
+   * Lazy factories still register the built-in vocabularies needed to resolve the name.
+   *
+   * @return the known term or null
+   */
+  public Term lookup(final String termName) {
+    if (isNullOrEmpty(termName)) {
+      return null;
+    }
+    Term t = getKnown(termName, false);
+    while (t == null && lazy && loadVocabulariesFor(termName, false)) {
+      t = getKnown(termName, false);
+    }
+    if (t == null) {
+      t = getKnown(termName, true);
+    }
+    if (t == null) {
+      t = getNormalised(termName, true);
+    }
+    return t != null ? t : getNormalised(termName, false);
+  }
+
+  /**
+   * Looks up a known property term, see {@link #lookup(String)}.
+   */
+  public Term lookupProperty(final String termName) {
+    return lookup(termName, false);
+  }
+
+  /**
+   * Looks up a known class term, see {@link #lookup(String)}.
+   */
+  public Term lookupClass(final String termName) {
+    return lookup(termName, true);
+  }
+
+  private Term lookup(final String termName, boolean isClassTerm) {
+    if (isNullOrEmpty(termName)) {
+      return null;
+    }
+    Term t = getKnown(termName, isClassTerm);
+    while (t == null && lazy && loadVocabulariesFor(termName, isClassTerm)) {
+      t = getKnown(termName, isClassTerm);
+    }
+    return t != null ? t : getNormalised(termName, isClassTerm);
+  }
+
+  /**
+   * Exact lookup of a known term, falling back to the unknown terms created so far.
+   * Overlays look up their own terms first and then the ones of their parent.
+   */
+  private Term get(String key, boolean isClassTerm) {
+    Term t = index.get(key, isClassTerm);
+    if (t == null && parent != null) {
+      t = parent.get(key, isClassTerm);
+    }
+    return t != null ? t : unknownTerms.get(key, isClassTerm);
+  }
+
+  /**
+   * Exact lookup of a known term.
+   */
+  private Term getKnown(String key, boolean isClassTerm) {
+    Term t = index.get(key, isClassTerm);
+    return t == null && parent != null ? parent.getKnown(key, isClassTerm) : t;
+  }
+
+  /**
+   * Exact lookup of a known property term.
+   */
+  private Term getKnown(CharSequence key) {
+    Term t = index.get(key, false);
+    return t == null && parent != null ? parent.getKnown(key) : t;
+  }
+
+  /**
+   * Exact lookup of a known property term given as UTF-8 bytes.
+   */
+  private Term getKnown(ByteBuffer utf8, int from, int to) {
+    Term t = index.get(utf8, from, to, false);
+    return t == null && parent != null ? parent.getKnown(utf8, from, to) : t;
+  }
+
+  /**
+   * Lookup of a known term by its normalised name.
+   */
+  private Term getNormalised(String termName, boolean isClassTerm) {
+    Term t = index.getNormalised(termName, isClassTerm);
+    return t == null && parent != null ? parent.getNormalised(termName, isClassTerm) : t;
+  }
+
+  /**
+   * Lookup of an unknown term created before by its normalised name.
+   */
+  private Term getUnknownNormalised(String termName, boolean isClassTerm) {
+    Term t = unknownTerms.isEmpty(isClassTerm) ? null : unknownTerms.get(normaliseTerm(termName), isClassTerm);
+    return t == null && parent != null ? parent.getUnknownNormalised(termName, isClassTerm) : t;
+  }
+
+  /**
+   * @return a builder for a new index based on the current one,
+   * which for overlays never adds normalised names the parent already resolves
+   */
+  private TermIndex.Builder builder() {
+    return parent == null ? index.toBuilder() : index.toBuilder((key, isClass) -> parent.getKnown(key, isClass) != null);
+  }
+
+  private Function<String, Term> family(String termName) {
+    Function<String, Term> family = index.family(termName);
+    return family == null && parent != null ? parent.family(termName) : family;
+  }
+
   /**
    * Does not create Unknown terms
    */
-  private Term findTermOnly(final String termName, boolean isClassTerm) throws IllegalArgumentException {
+  private Term findTermOnly(final String termName, boolean isClassTerm, SlowLookupEvent event) throws IllegalArgumentException {
     if (isNullOrEmpty(termName)) {
       return null;
     }
 
-    Map<String, Term> map = termMap(isClassTerm);
     // first try term just as it is
-    if (map.containsKey(termName)) {
-      return map.get(termName);
+    Term t = get(termName, isClassTerm);
+    if (t != null) {
+      metrics.hit(termName, t, false);
+      event.path = SlowLookupEvent.EXACT;
+      return t;
     }
 
-    // try normalised term otherwise
-    if (map.containsKey(normaliseTerm(termName))) {
-      return map.get(normaliseTerm(termName));
+    // try normalised term otherwise, known terms are found without building the normalised string
+    t = getNormalised(termName, isClassTerm);
+    if (t == null) {
+      t = getUnknownNormalised(termName, isClassTerm);
+    }
+    if (t != null) {
+      metrics.hit(termName, t, true);
+      event.path = SlowLookupEvent.NORMALISED;
     }
-    return null;
+    return t;
   }
 
-  private Term createUnknownTerm(String termName, boolean isClassTerm) {
-    // create new term instance
-    Term term = UnknownTerm.build(termName, isClassTerm);
-    addTerm(termName, term);
-    addTerm(term.qualifiedName(), term);
-    return term;
+  /**
+   * @param lenient if true null is returned for bad term names instead of throwing an IllegalArgumentException
+   */
+  private Term createUnknownTerm(String termName, boolean isClassTerm, boolean lenient) {
+    UnknownTermEvent event = new UnknownTermEvent();
+    event.begin();
+    UnknownTermParser.Result r = UnknownTermParser.parse(termName, isClassTerm);
+    if (r.getKind() == UnknownTermParser.Kind.INVALID) {
+      metrics.rejected(termName);
+      if (lenient) {
+        return null;
+      }
+      throw new IllegalArgumentException(r.getError());
+    }
+    // keep only one term per name even if requested concurrently
+    return unknownTerms.computeIfAbsent(termName, isClassTerm, n -> {
+      Term term = r.getTerm();
+      metrics.unknownTermCreated(n);
+      if (event.shouldCommit()) {
+        event.name = n;
+        event.qualifiedName = term.qualifiedName();
+        event.isClass = isClassTerm;
+        event.commit();
+      }
+      return term;
+    }, Term::qualifiedName);
   }
 
-  private Term createBibtexTerm(String termName, boolean qualified) {
+  private Term createFamilyTerm(String termName, Function<String, Term> family, boolean lenient) {
     // create new term instance
-    Term term = qualified ? BibTexTerm.buildFromURI(termName) : BibTexTerm.buildFromPrefix(termName);
-    addTerm(term.qualifiedName(), term);
-    addTerm(term.prefixedName(), term);
-    return term;
+    Term term;
+    try {
+      term = family.apply(termName);
+    } catch (IllegalArgumentException e) {
+      metrics.rejected(termName);
+      if (lenient) {
+        return null;
+      }
+      throw e;
+    }
+    return unknownTerms.computeIfAbsent(term.qualifiedName(), false, n -> {
+      metrics.bibTexTermCreated();
+      return term;
+    }, Term::prefixedName);
   }
 
 }
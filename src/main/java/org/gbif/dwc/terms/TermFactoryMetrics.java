@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the lookup counters of a {@link TermFactory}, see {@link TermFactory#metrics()}.
+ */
+public final class TermFactoryMetrics implements TermFactoryMetricsMXBean {
+
+  private final long exactHits;
+  private final long normalisedHits;
+  private final long classHits;
+  private final long propertyHits;
+  private final long bibTexTermCreations;
+  private final long unknownTermCreations;
+  private final long rejectedNames;
+  private final long headerCacheHits;
+  private final long headerCacheMisses;
+  private final Map<String, Long> topUnknownNames;
+
+  TermFactoryMetrics(TermFactoryMetricsMXBean metrics) {
+    exactHits = metrics.getExactHits();
+    normalisedHits = metrics.getNormalisedHits();
+    classHits = metrics.getClassHits();
+    propertyHits = metrics.getPropertyHits();
+    bibTexTermCreations = metrics.getBibTexTermCreations();
+    unknownTermCreations = metrics.getUnknownTermCreations();
+    rejectedNames = metrics.getRejectedNames();
+    headerCacheHits = metrics.getHeaderCacheHits();
+    headerCacheMisses = metrics.getHeaderCacheMisses();
+    topUnknownNames = Collections.unmodifiableMap(new LinkedHashMap<>(metrics.getTopUnknownNames()));
+  }
+
+  @Override
+  public long getExactHits() {
+    return exactHits;
+  }
+
+  @Override
+  public long getNormalisedHits() {
+    return normalisedHits;
+  }
+
+  @Override
+  public long getClassHits() {
+    return classHits;
+  }
+
+  @Override
+  public long getPropertyHits() {
+    return propertyHits;
+  }
+
+  @Override
+  public long getBibTexTermCreations() {
+    return bibTexTermCreations;
+  }
+
+  @Override
+  public long getUnknownTermCreations() {
+    return unknownTermCreations;
+  }
+
+  @Override
+  public long getRejectedNames() {
+    return rejectedNames;
+  }
+
+  @Override
+  public long getHeaderCacheHits() {
+    return headerCacheHits;
+  }
+
+  @Override
+  public long getHeaderCacheMisses() {
+    return headerCacheMisses;
+  }
+
+  @Override
+  public Map<String, Long> getTopUnknownNames() {
+    return topUnknownNames;
+  }
+
+  @Override
+  public String toString() {
+    return "TermFactoryMetrics{" +
+        "exactHits=" + exactHits +
+        ", normalisedHits=" + normalisedHits +
+        ", classHits=" + classHits +
+        ", propertyHits=" + propertyHits +
+        ", bibTexTermCreations=" + bibTexTermCreations +
+        ", unknownTermCreations=" + unknownTermCreations +
+        ", rejectedNames=" + rejectedNames +
+        ", headerCacheHits=" + headerCacheHits +
+        ", headerCacheMisses=" + headerCacheMisses +
+        ", topUnknownNames=" + topUnknownNames +
+        '}';
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.Map;
+
+/**
+ * Lookup counters of a {@link TermFactory}, exported via JMX if the system property
+ * {@value TermFactory#JMX_PROPERTY} is set.
+ */
+public interface TermFactoryMetricsMXBean {
+
+  /**
+   * @return number of lookups resolved by the exact name, including unknown terms created before
+   */
+  long getExactHits();
+
+  /**
+   * @return number of lookups resolved by the normalised name
+   */
+  long getNormalisedHits();
+
+  /**
+   * @return number of lookups resolved to an existing class term
+   */
+  long getClassHits();
+
+  /**
+   * @return number of lookups resolved to an existing property term
+   */
+  long getPropertyHits();
+
+  /**
+   * @return number of new BibTeX terms created
+   */
+  long getBibTexTermCreations();
+
+  /**
+   * @return number of new unknown terms created
+   */
+  long getUnknownTermCreations();
+
+  /**
+   * @return number of names rejected as no term can be created for them
+   */
+  long getRejectedNames();
+
+  long getHeaderCacheHits();
+
+  long getHeaderCacheMisses();
+
+  /**
+   * @return the most frequently looked up unknown or rejected names with their estimated number of lookups,
+   * the most frequent first
+   */
+  Map<String, Long> getTopUnknownNames();
+}
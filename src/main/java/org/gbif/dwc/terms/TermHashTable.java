@@ -0,0 +1,427 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable, collision free (perfect) hash table from names to terms.
+ *
+ * The table uses hash and displace: keys are grouped into small buckets and every bucket gets a displacement
+ * so that all keys end up in a distinct slot. A lookup therefore costs a single probe and one equality check.
+ * Keys sharing the very same {@link String#hashCode()} cannot be separated by any displacement,
+ * so all but the first of them are kept in a tiny overflow list.
+ */
+final class TermHashTable {
+
+  private static final int KEYS_PER_BUCKET = 4;
+  private static final int MAX_SEEDS = 64;
+
+  static final TermHashTable EMPTY = build(new LinkedHashMap<>());
+
+  private final int seed;
+  private final int mask;
+  private final int[] displacements;
+  private final int[] hashes;
+  private final String[] keys;
+  private final Term[] values;
+  private final String[] overflowKeys;
+  private final Term[] overflowValues;
+  // insertion order: slots as positive numbers, overflow entries as -(index + 1)
+  private final int[] order;
+
+  private TermHashTable(int seed, int[] displacements, int[] hashes, String[] keys, Term[] values,
+                        String[] overflowKeys, Term[] overflowValues, int[] order) {
+    this.seed = seed;
+    this.mask = keys.length - 1;
+    this.displacements = displacements;
+    this.hashes = hashes;
+    this.keys = keys;
+    this.values = values;
+    this.overflowKeys = overflowKeys;
+    this.overflowValues = overflowValues;
+    this.order = order;
+  }
+
+  /**
+   * Builds a new table for the given entries, keeping their iteration order.
+   */
+  static TermHashTable build(Map<String, Term> entries) {
+    List<String> tableKeys = new ArrayList<>(entries.size());
+    List<String> overflow = new ArrayList<>();
+    split(entries, tableKeys, overflow);
+
+    int size = Math.max(2, Integer.highestOneBit(Math.max(1, tableKeys.size() * 5 / 4)) << 1);
+    for (int attempt = 0; ; attempt++) {
+      int seed = 0x9E3779B9 * (attempt + 1);
+      int[] displacements = displace(tableKeys, size, seed);
+      if (displacements != null) {
+        return fill(entries, tableKeys, overflow, size, seed, displacements);
+      }
+      if (attempt % MAX_SEEDS == MAX_SEEDS - 1) {
+        size <<= 1;
+      }
+    }
+  }
+
+  /**
+   * Rebuilds a table from the entries and hash parameters of a table built before, without searching for displacements.
+   * @return the table or null if the parameters do not place all keys in distinct slots
+   */
+  static TermHashTable restore(Map<String, Term> entries, int seed, int size, int[] displacements) {
+    if (size < 2 || Integer.bitCount(size) != 1 || displacements.length == 0) {
+      return null;
+    }
+    List<String> tableKeys = new ArrayList<>(entries.size());
+    List<String> overflow = new ArrayList<>();
+    split(entries, tableKeys, overflow);
+    return fill(entries, tableKeys, overflow, size, seed, displacements);
+  }
+
+  /**
+   * Separates keys sharing the same hash code, all but the first of them go to the overflow list.
+   */
+  private static void split(Map<String, Term> entries, List<String> tableKeys, List<String> overflow) {
+    Map<Integer, String> byHash = new HashMap<>();
+    for (String key : entries.keySet()) {
+      if (byHash.putIfAbsent(key.hashCode(), key) == null) {
+        tableKeys.add(key);
+      } else {
+        overflow.add(key);
+      }
+    }
+  }
+
+  /**
+   * @return the displacement for every bucket or null if no displacement exists for some bucket with this seed
+   */
+  private static int[] displace(List<String> tableKeys, int size, int seed) {
+    int bucketCount = Math.max(1, tableKeys.size() / KEYS_PER_BUCKET);
+    List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+    for (int b = 0; b < bucketCount; b++) {
+      buckets.add(new ArrayList<>());
+    }
+    int[] hashes = new int[tableKeys.size()];
+    for (int i = 0; i < tableKeys.size(); i++) {
+      hashes[i] = tableKeys.get(i).hashCode();
+      buckets.get(bucket(hashes[i], seed, bucketCount)).add(i);
+    }
+
+    Integer[] bucketOrder = new Integer[bucketCount];
+    for (int b = 0; b < bucketCount; b++) {
+      bucketOrder[b] = b;
+    }
+    // place the largest buckets first while the table is still empty
+    Arrays.sort(bucketOrder, Comparator.comparingInt((Integer b) -> buckets.get(b).size()).reversed());
+
+    int mask = size - 1;
+    int[] displacements = new int[bucketCount];
+    boolean[] taken = new boolean[size];
+    int[] slots = new int[KEYS_PER_BUCKET * 8];
+    for (int b : bucketOrder) {
+      List<Integer> bucket = buckets.get(b);
+      if (bucket.isEmpty()) {
+        break;
+      }
+      if (bucket.size() > slots.length) {
+        slots = new int[bucket.size()];
+      }
+      boolean placed = false;
+      for (int d = 0; d < size && !placed; d++) {
+        placed = true;
+        for (int i = 0; i < bucket.size() && placed; i++) {
+          int slot = slot(hashes[bucket.get(i)], seed, d, mask);
+          if (taken[slot]) {
+            placed = false;
+          }
+          for (int j = 0; j < i && placed; j++) {
+            if (slots[j] == slot) {
+              placed = false;
+            }
+          }
+          slots[i] = slot;
+        }
+        if (placed) {
+          displacements[b] = d;
+          for (int i = 0; i < bucket.size(); i++) {
+            taken[slots[i]] = true;
+          }
+        }
+      }
+      if (!placed) {
+        return null;
+      }
+    }
+    return displacements;
+  }
+
+  private static TermHashTable fill(Map<String, Term> entries, List<String> tableKeys, List<String> overflow,
+                                    int size, int seed, int[] displacements) {
+    int mask = size - 1;
+    int[] hashes = new int[size];
+    String[] keys = new String[size];
+    Term[] values = new Term[size];
+    for (String key : tableKeys) {
+      int h = key.hashCode();
+      int slot = slot(h, seed, displacements[bucket(h, seed, displacements.length)], mask);
+      if (keys[slot] != null) {
+        // only possible with restored parameters
+        return null;
+      }
+      hashes[slot] = h;
+      keys[slot] = key;
+      values[slot] = entries.get(key);
+    }
+
+    String[] overflowKeys = overflow.toArray(new String[0]);
+    Term[] overflowValues = new Term[overflowKeys.length];
+    Map<String, Integer> overflowIndex = new HashMap<>();
+    for (int i = 0; i < overflowKeys.length; i++) {
+      overflowValues[i] = entries.get(overflowKeys[i]);
+      overflowIndex.put(overflowKeys[i], i);
+    }
+
+    int[] order = new int[entries.size()];
+    int idx = 0;
+    for (String key : entries.keySet()) {
+      Integer o = overflowIndex.get(key);
+      if (o != null) {
+        order[idx++] = -(o + 1);
+      } else {
+        int h = key.hashCode();
+        order[idx++] = slot(h, seed, displacements[bucket(h, seed, displacements.length)], mask);
+      }
+    }
+    return new TermHashTable(seed, displacements, hashes, keys, values, overflowKeys, overflowValues, order);
+  }
+
+  private static int mix(int h) {
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  private static int bucket(int hash, int seed, int bucketCount) {
+    return (int) (((mix(hash ^ seed) >>> 1) * (long) bucketCount) >>> 31);
+  }
+
+  private static int slot(int hash, int seed, int displacement, int mask) {
+    int h = mix(hash + seed);
+    // an odd step visits every slot of the power of two sized table
+    return (h + displacement * (mix(h) | 1)) & mask;
+  }
+
+  private int slot(int hash) {
+    return slot(hash, seed, displacements[bucket(hash, seed, displacements.length)], mask);
+  }
+
+  /**
+   * @return the term stored under the exact key or null
+   */
+  Term get(String key) {
+    int h = key.hashCode();
+    int slot = slot(h);
+    if (hashes[slot] == h) {
+      String k = keys[slot];
+      if (key.equals(k)) {
+        return values[slot];
+      }
+      if (k != null) {
+        for (int i = 0; i < overflowKeys.length; i++) {
+          if (overflowKeys[i].equals(key)) {
+            return overflowValues[i];
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the term stored under the exact key given as any char sequence or null
+   */
+  Term get(CharSequence key) {
+    final int len = key.length();
+    int h = 0;
+    for (int i = 0; i < len; i++) {
+      h = 31 * h + key.charAt(i);
+    }
+    int slot = slot(h);
+    if (hashes[slot] == h) {
+      String k = keys[slot];
+      if (k != null) {
+        if (k.contentEquals(key)) {
+          return values[slot];
+        }
+        for (int i = 0; i < overflowKeys.length; i++) {
+          if (overflowKeys[i].contentEquals(key)) {
+            return overflowValues[i];
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the term stored under the exact key given as UTF-8 bytes between the two absolute positions or null
+   */
+  Term get(ByteBuffer utf8, int from, int to) {
+    int h = Utf8Names.hash(utf8, from, to);
+    int slot = slot(h);
+    if (hashes[slot] == h) {
+      String k = keys[slot];
+      if (k != null) {
+        if (Utf8Names.equals(utf8, from, to, k)) {
+          return values[slot];
+        }
+        for (int i = 0; i < overflowKeys.length; i++) {
+          if (Utf8Names.equals(utf8, from, to, overflowKeys[i])) {
+            return overflowValues[i];
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Looks up the normalised form of a term name without building the normalised string.
+   * @return the term stored under the normalised form of the name or null
+   */
+  Term getNormalised(CharSequence name) {
+    int h = TermNormaliser.hash(name);
+    int slot = slot(h);
+    if (hashes[slot] == h) {
+      String k = keys[slot];
+      if (k != null) {
+        if (TermNormaliser.equals(name, k)) {
+          return values[slot];
+        }
+        for (int i = 0; i < overflowKeys.length; i++) {
+          if (TermNormaliser.equals(name, overflowKeys[i])) {
+            return overflowValues[i];
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the term stored under the exact key found in the char sequence from the given position on or null
+   */
+  Term get(CharSequence name, int from) {
+    final int len = name.length();
+    int h = 0;
+    for (int i = from; i < len; i++) {
+      h = 31 * h + name.charAt(i);
+    }
+    int slot = slot(h);
+    if (hashes[slot] == h) {
+      String k = keys[slot];
+      if (k != null) {
+        if (regionEquals(name, from, k)) {
+          return values[slot];
+        }
+        for (int i = 0; i < overflowKeys.length; i++) {
+          if (regionEquals(name, from, overflowKeys[i])) {
+            return overflowValues[i];
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean regionEquals(CharSequence name, int from, String key) {
+    if (name.length() - from != key.length()) {
+      return false;
+    }
+    for (int i = 0; i < key.length(); i++) {
+      if (name.charAt(from + i) != key.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Looks up the normalised tail of a term name without building the normalised string.
+   * @return the term stored under the normalised tail of the name from the given position on or null
+   */
+  Term getNormalisedTail(CharSequence name, int from) {
+    int h = TermNormaliser.hashTail(name, from);
+    int slot = slot(h);
+    if (hashes[slot] == h) {
+      String k = keys[slot];
+      if (k != null) {
+        if (TermNormaliser.equalsTail(name, from, k)) {
+          return values[slot];
+        }
+        for (int i = 0; i < overflowKeys.length; i++) {
+          if (TermNormaliser.equalsTail(name, from, overflowKeys[i])) {
+            return overflowValues[i];
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  int size() {
+    return order.length;
+  }
+
+  int seed() {
+    return seed;
+  }
+
+  /**
+   * @return the number of slots
+   */
+  int slots() {
+    return keys.length;
+  }
+
+  int[] displacements() {
+    return displacements.clone();
+  }
+
+  /**
+   * Iterates over all entries in the order they were added.
+   */
+  void forEach(BiConsumer<String, Term> consumer) {
+    for (int o : order) {
+      if (o >= 0) {
+        consumer.accept(keys[o], values[o]);
+      } else {
+        consumer.accept(overflowKeys[-o - 1], overflowValues[-o - 1]);
+      }
+    }
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense integer identifiers for terms, shared by all factories of a JVM.
+ *
+ * All constants of a term enumeration get a block of consecutive identifiers in ordinal order
+ * when the first of them is given an identifier, so the identifier of an enum constant is the start of its block
+ * plus its ordinal. Identifiers of enum constants are never reused.
+ *
+ * Any other term gets a free identifier when it is first asked for, with equal terms sharing one identifier.
+ * These terms are only weakly referenced, so unknown terms built from arbitrary input do not pile up:
+ * once the term an identifier was assigned to has been garbage collected its identifier is reused.
+ * Code keeping identifiers therefore has to keep the term returned by {@link #pin(Term)} alive as well.
+ * Identifiers depend on the order terms are first used in and must not be persisted.
+ */
+final class TermIds {
+
+  // enum constants and keys of other terms by identifier, replaced by a larger copy when full,
+  // guarded by TermIds.class for writes
+  private static volatile Object[] terms = new Object[1024];
+  // highest identifier assigned plus one, written after the terms array
+  private static volatile int size;
+  // first identifier of each enumeration, guarded by TermIds.class
+  private static final Map<Class<?>, Integer> ENUM_BASES = new HashMap<>();
+  // keys of all other terms, mapped to themselves
+  private static final Map<Key, WeakKey> OTHER = new ConcurrentHashMap<>();
+  private static final ReferenceQueue<Term> COLLECTED = new ReferenceQueue<>();
+  // identifiers of collected terms to be reused, guarded by TermIds.class
+  private static int[] free = new int[16];
+  private static int freeCount;
+  private static final ClassValue<Integer> BASES = new ClassValue<Integer>() {
+    @Override
+    protected Integer computeValue(Class<?> type) {
+      return enumBase(type);
+    }
+  };
+
+  /**
+   * Key of a term, equal to the key of any equal term while the term is not garbage collected.
+   */
+  private interface Key {
+    Term term();
+  }
+
+  private static final class LookupKey implements Key {
+    private final Term term;
+
+    private LookupKey(Term term) {
+      this.term = term;
+    }
+
+    @Override
+    public Term term() {
+      return term;
+    }
+
+    @Override
+    public int hashCode() {
+      return term.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o == this || o instanceof Key && term.equals(((Key) o).term());
+    }
+  }
+
+  private static final class WeakKey extends WeakReference<Term> implements Key {
+    private final int id;
+    private final int hash;
+
+    private WeakKey(Term term, int id) {
+      super(term, COLLECTED);
+      this.id = id;
+      this.hash = term.hashCode();
+    }
+
+    @Override
+    public Term term() {
+      return get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (o == this) {
+        return true;
+      }
+      Term t = get();
+      return t != null && o instanceof Key && t.equals(((Key) o).term());
+    }
+  }
+
+  private TermIds() {
+  }
+
+  /**
+   * @return the identifier of the term, assigning one if needed
+   */
+  static int id(Term term) {
+    if (term instanceof Enum) {
+      Enum<?> e = (Enum<?>) term;
+      return BASES.get(e.getDeclaringClass()) + e.ordinal();
+    }
+    while (true) {
+      WeakKey k = OTHER.get(new LookupKey(term));
+      if (k != null && !k.refersTo(null)) {
+        return k.id;
+      }
+      assign(term);
+    }
+  }
+
+  /**
+   * Just as id(Term), but never assigns a new identifier to a term that is not an enum constant.
+   *
+   * @return the identifier of the term or -1 if none was assigned yet
+   */
+  static int find(Term term) {
+    if (term instanceof Enum) {
+      return id(term);
+    }
+    WeakKey k = OTHER.get(new LookupKey(term));
+    return k != null && !k.refersTo(null) ? k.id : -1;
+  }
+
+  /**
+   * Assigns an identifier to the term if needed and returns the term the identifier is assigned to,
+   * which is an equal term but not necessarily the same instance.
+   * The identifier is not reused as long as the returned term is kept.
+   */
+  static Term pin(Term term) {
+    if (term instanceof Enum) {
+      return term;
+    }
+    while (true) {
+      WeakKey k = OTHER.get(new LookupKey(term));
+      Term t = k != null ? k.get() : null;
+      if (t != null) {
+        return t;
+      }
+      assign(term);
+    }
+  }
+
+  /**
+   * @return the term with the identifier or null if it was never assigned or the term was garbage collected
+   */
+  static Term termOf(int id) {
+    if (id < 0 || id >= size) {
+      return null;
+    }
+    Object t = terms[id];
+    return t instanceof WeakKey ? ((WeakKey) t).get() : (Term) t;
+  }
+
+  /**
+   * @return the highest identifier assigned so far plus one, all identifiers are below it
+   */
+  static int size() {
+    return size;
+  }
+
+  private static Integer enumBase(Class<?> type) {
+    // outside the lock, as this might initialise the enumeration which can ask for identifiers itself
+    Object[] constants = type.getEnumConstants();
+    synchronized (TermIds.class) {
+      Integer base = ENUM_BASES.get(type);
+      if (base == null) {
+        base = size;
+        for (Object c : constants) {
+          set(size, c);
+        }
+        ENUM_BASES.put(type, base);
+      }
+      return base;
+    }
+  }
+
+  private static synchronized void assign(Term term) {
+    expunge();
+    WeakKey k = OTHER.get(new LookupKey(term));
+    if (k == null || k.refersTo(null)) {
+      int id = freeCount > 0 ? free[--freeCount] : size;
+      k = new WeakKey(term, id);
+      set(id, k);
+      OTHER.put(k, k);
+    }
+  }
+
+  // caller holds the lock
+  private static void expunge() {
+    Reference<? extends Term> ref;
+    while ((ref = COLLECTED.poll()) != null) {
+      WeakKey k = (WeakKey) ref;
+      OTHER.remove(k, k);
+      if (terms[k.id] == k) {
+        terms[k.id] = null;
+        if (freeCount == free.length) {
+          free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = k.id;
+      }
+    }
+  }
+
+  // caller holds the lock
+  private static void set(int id, Object term) {
+    Object[] t = terms;
+    if (id == t.length) {
+      t = Arrays.copyOf(t, t.length * 2);
+    }
+    t[id] = term;
+    terms = t;
+    if (id == size) {
+      size = size + 1;
+    }
+  }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable index of all known term names, keeping property and class terms distinct.
+ * Names are kept in perfect hash tables, so a lookup costs one probe and one equality check.
+ * Names starting with a known namespace or prefix are normalised and looked up via a {@link NamespaceTrie}.
+ * An index is never modified once built, so any number of threads can read it without locking.
+ * Registrations copy the index into a {@link Builder} and publish the newly built index as a whole.
+ */
+final class TermIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TermIndex.class);
+
+  static final TermIndex EMPTY = new TermIndex(TermHashTable.EMPTY, TermHashTable.EMPTY, NamespaceTrie.EMPTY, List.of(), 0);
+
+  private final TermHashTable terms;
+  private final TermHashTable classTerms;
+  private final NamespaceTrie namespaces;
+  private final List<TermCollisionReport.Collision> collisions;
+  private final long epoch;
+  // built on first use, racy but idempotent
+  private volatile AliasIndex aliases;
+
+  private TermIndex(TermHashTable terms, TermHashTable classTerms, NamespaceTrie namespaces,
+                    List<TermCollisionReport.Collision> collisions, long epoch) {
+    this.terms = terms;
+    this.classTerms = classTerms;
+    this.namespaces = namespaces;
+    this.collisions = collisions;
+    this.epoch = epoch;
+  }
+
+  /**
+   * @return the term registered under the exact key or null
+   */
+  Term get(String key, boolean isClass) {
+    return (isClass ? classTerms : terms).get(key);
+  }
+
+  /**
+   * @return the term registered under the exact key or null
+   */
+  Term get(CharSequence key, boolean isClass) {
+    return (isClass ? classTerms : terms).get(key);
+  }
+
+  /**
+   * @return the term registered under the exact key given as UTF-8 bytes or null
+   */
+  Term get(ByteBuffer utf8, int from, int to, boolean isClass) {
+    return (isClass ? classTerms : terms).get(utf8, from, to);
+  }
+
+  /**
+   * @return the term registered under the normalised form of the name or null
+   */
+  Term getNormalised(String name, boolean isClass) {
+    Term t = namespaces.getNormalised(name, isClass);
+    return t != null ? t : (isClass ? classTerms : terms).getNormalised(name);
+  }
+
+  /**
+   * @return the factory for new terms of the namespace family the name belongs to or null
+   */
+  Function<String, Term> family(String name) {
+    return namespaces.family(name);
+  }
+
+  /**
+   * @return the reverse index of all names registered for each term, built on first use
+   */
+  AliasIndex aliases() {
+    AliasIndex a = aliases;
+    if (a == null) {
+      a = AliasIndex.build(terms, classTerms);
+      aliases = a;
+    }
+    return a;
+  }
+
+  /**
+   * @return the hash table with all property or class term names
+   */
+  TermHashTable table(boolean isClass) {
+    return isClass ? classTerms : terms;
+  }
+
+  /**
+   * @return all namespaces and prefixes names are routed by
+   */
+  List<String> namespaces() {
+    return namespaces.namespaces();
+  }
+
+  /**
+   * @return all names that were not added for a term as they were already taken by another term
+   */
+  List<TermCollisionReport.Collision> collisions() {
+    return collisions;
+  }
+
+  /**
+   * @return the number of indices this index was built upon, starting with 0 for the empty index
+   */
+  long epoch() {
+    return epoch;
+  }
+
+  /**
+   * Creates an index from hash tables restored from a precomputed index, which is the first index built.
+   */
+  static TermIndex restore(TermHashTable termTable, TermHashTable classTermTable,
+                           Collection<String> namespaces, Map<String, Function<String, Term>> families,
+                           List<TermCollisionReport.Collision> collisions) {
+    return new TermIndex(termTable, classTermTable,
+        NamespaceTrie.build(namespaces, families, termTable, classTermTable), List.copyOf(collisions), 1);
+  }
+
+  /**
+   * @return a new builder initialised with all entries of this index
+   */
+  Builder toBuilder() {
+    return new Builder(this, null);
+  }
+
+  /**
+   * @param parent the keys known to the parent of an overlay, whose normalised keys must not be shadowed
+   * @return a new builder initialised with all entries of this index
+   */
+  Builder toBuilder(ParentKeys parent) {
+    return new Builder(this, parent);
+  }
+
+  /**
+   * Keys an overlay index falls back to.
+   */
+  @FunctionalInterface
+  interface ParentKeys {
+    boolean contains(String key, boolean isClass);
+  }
+
+  /**
+   * Collects the names of terms and the namespaces they are routed by.
+   */
+  abstract static class Collector {
+
+    /**
+     * Adds a term under the given key and its normalised form.
+     */
+    abstract void add(String key, Term term);
+
+    /**
+     * Adds a namespace or prefix including the colon.
+     */
+    abstract void addNamespace(String namespace);
+
+    /**
+     * Adds a namespace family whose terms are built on demand by the factory from any name starting with the namespace.
+     */
+    abstract void addFamily(String namespace, Function<String, Term> factory);
+
+    /**
+     * Adds the namespace and prefix of a vocabulary and optionally alternative prefixes.
+     */
+    void addNamespace(Term term, String... altPrefixes) {
+      addNamespace(term.namespace().toString());
+      addNamespace(term.prefix() + ":");
+      for (String pre : altPrefixes) {
+        addNamespace(pre + ":");
+      }
+    }
+
+    /**
+     * Adds the simple, prefixed and qualified name of a term and optionally prefixes the simple name
+     * with alternative prefixes.
+     */
+    void add(Term term, String... altPrefixes) {
+      add(term.simpleName(), term);
+      add(term.prefixedName(), term);
+      add(term.qualifiedName(), term);
+      for (String pre : altPrefixes) {
+        add(pre + ":" + term.simpleName(), term);
+      }
+    }
+  }
+
+  /**
+   * Names of a single vocabulary collected independently of any index and already normalised,
+   * so fragments can be built in parallel and then merged into a builder in a fixed order.
+   */
+  static final class Fragment extends Collector {
+    private final List<String> keys = new ArrayList<>();
+    private final List<String> normalisedKeys = new ArrayList<>();
+    private final List<Term> terms = new ArrayList<>();
+    private final List<String> namespaces = new ArrayList<>();
+    private final Map<String, Function<String, Term>> families = new LinkedHashMap<>();
+    // all keys by term type, built on first use
+    private Set<String> propertyKeys;
+    private Set<String> classKeys;
+
+    @Override
+    void add(String key, Term term) {
+      if (!TermFactory.isNullOrEmpty(key)) {
+        keys.add(key);
+        normalisedKeys.add(TermFactory.normaliseTerm(key));
+        terms.add(term);
+      }
+    }
+
+    @Override
+    void addNamespace(String namespace) {
+      namespaces.add(namespace);
+    }
+
+    @Override
+    void addFamily(String namespace, Function<String, Term> factory) {
+      families.put(namespace, factory);
+    }
+
+    /**
+     * @return true if the fragment has a term registered exactly under the key
+     */
+    synchronized boolean containsKey(String key, boolean isClass) {
+      if (propertyKeys == null) {
+        propertyKeys = new HashSet<>();
+        classKeys = new HashSet<>();
+        for (int i = 0; i < keys.size(); i++) {
+          (terms.get(i).isClass() ? classKeys : propertyKeys).add(keys.get(i));
+        }
+      }
+      return (isClass ? classKeys : propertyKeys).contains(key);
+    }
+  }
+
+  /**
+   * Mutable, single threaded builder for a new index.
+   */
+  static final class Builder extends Collector {
+    private final Map<String, Term> terms;
+    private final Map<String, Term> classTerms;
+    private final Set<String> namespaces;
+    private final Map<String, Function<String, Term>> families;
+    private final List<TermCollisionReport.Collision> collisions;
+    private final long epoch;
+    private final ParentKeys parent;
+
+    private Builder(TermIndex base, ParentKeys parent) {
+      this.parent = parent;
+      terms = new LinkedHashMap<>();
+      classTerms = new LinkedHashMap<>();
+      base.terms.forEach(terms::put);
+      base.classTerms.forEach(classTerms::put);
+      namespaces = new LinkedHashSet<>(base.namespaces.namespaces());
+      families = new LinkedHashMap<>(base.namespaces.families());
+      collisions = new ArrayList<>(base.collisions);
+      epoch = base.epoch + 1;
+    }
+
+    @Override
+    void addNamespace(String namespace) {
+      namespaces.add(namespace);
+    }
+
+    @Override
+    void addFamily(String namespace, Function<String, Term> factory) {
+      families.put(namespace, factory);
+    }
+
+    /**
+     * Adds a term under the given key and its normalised form.
+     * If the key is already taken the earlier term is kept.
+     */
+    @Override
+    void add(String key, Term term) {
+      if (!TermFactory.isNullOrEmpty(key)) {
+        add(key, null, term);
+      }
+    }
+
+    /**
+     * Adds all names of a fragment just as if they were added one by one.
+     */
+    void add(Fragment fragment) {
+      for (int i = 0; i < fragment.keys.size(); i++) {
+        add(fragment.keys.get(i), fragment.normalisedKeys.get(i), fragment.terms.get(i));
+      }
+      namespaces.addAll(fragment.namespaces);
+      families.putAll(fragment.families);
+    }
+
+    private void add(String key, String normalisedKey, Term term) {
+      // keep class terms distinct
+      Map<String, Term> map = termMap(term.isClass());
+      Term existing = map.get(key);
+      if (existing != null) {
+        if (!existing.equals(term)) {
+          TermCollisionReport.Collision c = new TermCollisionReport.Collision(key, existing, term);
+          collisions.add(c);
+          LOG.debug("{}", c);
+        }
+      } else {
+        map.put(key, term);
+        // also add a normalised version, unless it would shadow a name the parent resolves
+        String nk = normalisedKey != null ? normalisedKey : TermFactory.normaliseTerm(key);
+        if (parent == null || !parent.contains(nk, term.isClass())) {
+          map.putIfAbsent(nk, term);
+        }
+      }
+    }
+
+    private Map<String, Term> termMap(boolean isClass) {
+      return isClass ? classTerms : terms;
+    }
+
+    TermIndex build() {
+      TermHashTable termTable = TermHashTable.build(terms);
+      TermHashTable classTermTable = TermHashTable.build(classTerms);
+      return new TermIndex(termTable, classTermTable,
+          NamespaceTrie.build(namespaces, families, termTable, classTermTable), List.copyOf(collisions), epoch);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Immutable view of all terms known to a {@link TermFactory} at a given {@link #epoch()}.
+ * Later registrations publish a new index and never change a snapshot, so it can be shared by any number of threads.
+ *
+ * Names are resolved just as {@link TermFactory#findTerm(String)} resolves known terms,
+ * but unknown names return null and never create a new term.
+ */
+public final class TermIndexSnapshot {
+
+  private final TermIndex index;
+  // the snapshot of the parent of an overlay or null
+  private final TermIndexSnapshot parent;
+  private final long epoch;
+
+  TermIndexSnapshot(TermIndex index, TermIndexSnapshot parent) {
+    this.index = index;
+    this.parent = parent;
+    this.epoch = parent == null ? index.epoch() : index.epoch() + parent.epoch;
+  }
+
+  /**
+   * @return the epoch of the factory when the snapshot was taken, see {@link TermFactory#epoch()}
+   */
+  public long epoch() {
+    return epoch;
+  }
+
+  /**
+   * @return the known property or class term for the name, preferring class terms for ambiguous names, or null
+   */
+  public Term get(String name) {
+    if (TermFactory.isNullOrEmpty(name)) {
+      return null;
+    }
+    Term t = exact(name, false);
+    if (t == null) {
+      t = exact(name, true);
+    }
+    if (t == null) {
+      t = normalised(name, true);
+    }
+    return t != null ? t : normalised(name, false);
+  }
+
+  /**
+   * @return the known property or class term for the name or null
+   */
+  public Term get(String name, boolean isClass) {
+    if (TermFactory.isNullOrEmpty(name)) {
+      return null;
+    }
+    Term t = exact(name, isClass);
+    return t != null ? t : normalised(name, isClass);
+  }
+
+  /**
+   * Iterates over all names of property or class terms, the ones of an overlay before the ones of its parents.
+   */
+  void forEach(boolean isClass, BiConsumer<String, Term> consumer) {
+    index.table(isClass).forEach(consumer);
+    if (parent != null) {
+      parent.forEach(isClass, consumer);
+    }
+  }
+
+  /**
+   * Iterates over all namespaces and prefixes names are routed by, the ones of an overlay before the ones of its parents.
+   */
+  void forEachNamespace(Consumer<String> consumer) {
+    index.namespaces().forEach(consumer);
+    if (parent != null) {
+      parent.forEachNamespace(consumer);
+    }
+  }
+
+  private Term exact(String name, boolean isClass) {
+    Term t = index.get(name, isClass);
+    return t == null && parent != null ? parent.exact(name, isClass) : t;
+  }
+
+  private Term normalised(String name, boolean isClass) {
+    Term t = index.getNormalised(name, isClass);
+    return t == null && parent != null ? parent.normalised(name, isClass) : t;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out one canonical instance for all terms built with the same key.
+ * Canonical instances are only weakly referenced, so terms no longer in use can be garbage collected
+ * and a later term built with the same key becomes the new canonical instance.
+ */
+final class TermInterner<T extends Term> {
+
+  private final ConcurrentHashMap<Object, Ref<T>> canonical = new ConcurrentHashMap<>();
+  private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+  private static final class Ref<T> extends WeakReference<T> {
+    private final Object key;
+
+    private Ref(Object key, T term, ReferenceQueue<T> queue) {
+      super(term, queue);
+      this.key = key;
+    }
+  }
+
+  /**
+   * @return the canonical instance for the key, which is the given term if there was none yet
+   */
+  T intern(Object key, T term) {
+    expunge();
+    Ref<T> created = null;
+    while (true) {
+      Ref<T> ref = canonical.get(key);
+      if (ref != null) {
+        T existing = ref.get();
+        if (existing != null) {
+          return existing;
+        }
+        canonical.remove(key, ref);
+      }
+      if (created == null) {
+        created = new Ref<>(key, term, queue);
+      }
+      if (canonical.putIfAbsent(key, created) == null) {
+        return term;
+      }
+    }
+  }
+
+  /**
+   * @return the number of canonical instances not yet known to be garbage collected
+   */
+  int size() {
+    expunge();
+    return canonical.size();
+  }
+
+  private void expunge() {
+    Reference<? extends T> ref;
+    while ((ref = queue.poll()) != null) {
+      canonical.remove(((Ref<?>) ref).key, ref);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+/**
+ * Builds the qualified and prefixed names of the built-in term enumerations, once in the constructor of each constant.
+ * The namespace URI of an enumeration is not initialised while its constants are constructed,
+ * so the names are built from the namespace and prefix constants instead of {@link Term#namespace()}.
+ */
+final class TermNames {
+
+  private TermNames() {
+  }
+
+  /**
+   * @return the namespace followed by the simple name, just as {@link Term#qualifiedName()}
+   */
+  static String qualifiedName(String namespace, String simpleName) {
+    return namespace + simpleName;
+  }
+
+  /**
+   * @return the prefix and the simple name separated by a colon, just as {@link Term#prefixedName()}
+   */
+  static String prefixedName(String prefix, String simpleName) {
+    return prefix + ":" + simpleName;
+  }
+}
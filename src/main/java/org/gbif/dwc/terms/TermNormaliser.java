@@ -0,0 +1,201 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+/**
+ * Hand written scanner producing the normalised form of term names as defined by {@link TermFactory#normaliseTerm}:
+ * all characters but ASCII letters, digits, # and - are removed, a leading http or https is stripped
+ * and the rest is lower cased.
+ *
+ * Besides building the normalised string it can compute its hash code and compare it to another string
+ * without creating the normalised string at all.
+ */
+final class TermNormaliser {
+
+  private static final String HTTPS = "https";
+
+  private TermNormaliser() {
+  }
+
+  private static boolean keep(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '#' || c == '-';
+  }
+
+  private static char lower(char c) {
+    return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+  }
+
+  /**
+   * @return the normalised term, the same instance if it is already normalised
+   */
+  static String normalise(String term) {
+    final int len = term.length();
+    char[] buf = null;
+    int n = 0;
+    // number of leading kept characters matching https case sensitively
+    int prefix = 0;
+    boolean prefixDone = false;
+    for (int i = 0; i < len; i++) {
+      char c = term.charAt(i);
+      if (!keep(c)) {
+        if (buf == null) {
+          buf = copy(term, i);
+          n = i;
+        }
+        continue;
+      }
+      if (!prefixDone) {
+        if (prefix < HTTPS.length() && c == HTTPS.charAt(prefix)) {
+          prefix++;
+        } else {
+          prefixDone = true;
+        }
+      }
+      char lc = lower(c);
+      if (buf == null && lc != c) {
+        buf = copy(term, i);
+        n = i;
+      }
+      if (buf != null) {
+        buf[n] = lc;
+      }
+      n++;
+    }
+    int start = stripped(prefix);
+    if (buf == null) {
+      return start == 0 ? term : term.substring(start);
+    }
+    return new String(buf, start, n - start);
+  }
+
+  private static char[] copy(String term, int upTo) {
+    char[] buf = new char[term.length()];
+    term.getChars(0, upTo, buf, 0);
+    return buf;
+  }
+
+  /**
+   * @param prefix number of leading kept characters matching https
+   * @return number of leading kept characters to remove
+   */
+  private static int stripped(int prefix) {
+    return prefix >= 5 ? 5 : (prefix == 4 ? 4 : 0);
+  }
+
+  /**
+   * @return the number of leading kept characters removed from the normalised form
+   */
+  private static int stripped(CharSequence term) {
+    final int len = term.length();
+    int prefix = 0;
+    for (int i = 0; i < len && prefix < HTTPS.length(); i++) {
+      char c = term.charAt(i);
+      if (keep(c)) {
+        if (c != HTTPS.charAt(prefix)) {
+          break;
+        }
+        prefix++;
+      }
+    }
+    return stripped(prefix);
+  }
+
+  /**
+   * @return the same value as normalise(term).hashCode() without building the normalised string
+   */
+  static int hash(CharSequence term) {
+    return hash(term, 0, stripped(term));
+  }
+
+  /**
+   * @return true if the normalised form of the term equals the given, already normalised key
+   */
+  static boolean equals(CharSequence term, String normalised) {
+    return equals(term, 0, stripped(term), normalised);
+  }
+
+  /**
+   * The tail of a term is normalised just as a whole term, but a leading http or https is kept.
+   * For a head that is at least 5 kept characters long or cannot start http
+   * the normalised term is the normalised head followed by the normalised tail.
+   *
+   * @return the normalised form of the term from the given position on
+   */
+  static String normaliseTail(String term, int from) {
+    StringBuilder sb = new StringBuilder(term.length() - from);
+    for (int i = from; i < term.length(); i++) {
+      char c = term.charAt(i);
+      if (keep(c)) {
+        sb.append(lower(c));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return the same value as normaliseTail(term, from).hashCode() without building the normalised string
+   */
+  static int hashTail(CharSequence term, int from) {
+    return hash(term, from, 0);
+  }
+
+  /**
+   * @return true if the normalised tail of the term equals the given, already normalised key
+   */
+  static boolean equalsTail(CharSequence term, int from, String normalised) {
+    return equals(term, from, 0, normalised);
+  }
+
+  /**
+   * @return true if a term starting with the given head can be normalised as the normalised head and tail
+   */
+  static boolean isSeparableHead(String head) {
+    String h = normaliseTail(head, 0);
+    return h.length() >= HTTPS.length() || !HTTPS.startsWith(h);
+  }
+
+  private static int hash(CharSequence term, int from, int skip) {
+    final int len = term.length();
+    int h = 0;
+    for (int i = from; i < len; i++) {
+      char c = term.charAt(i);
+      if (keep(c)) {
+        if (skip > 0) {
+          skip--;
+        } else {
+          h = 31 * h + lower(c);
+        }
+      }
+    }
+    return h;
+  }
+
+  private static boolean equals(CharSequence term, int from, int skip, String normalised) {
+    final int len = term.length();
+    int idx = 0;
+    for (int i = from; i < len; i++) {
+      char c = term.charAt(i);
+      if (keep(c)) {
+        if (skip > 0) {
+          skip--;
+        } else if (idx >= normalised.length() || lower(c) != normalised.charAt(idx++)) {
+          return false;
+        }
+      }
+    }
+    return idx == normalised.length();
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Service provider contributing term enumerations to the {@link TermFactory}.
+ *
+ * Providers are discovered with {@link java.util.ServiceLoader} when the factory instance is created,
+ * list implementations in META-INF/services/org.gbif.dwc.terms.TermProvider.
+ * Their term enumerations are registered after all vocabularies of this library,
+ * in the order providers are found and term enumerations are listed,
+ * so a name shared with a term of this library keeps resolving to the latter.
+ */
+public interface TermProvider {
+
+  /**
+   * @return the term enumerations to register in the given order
+   */
+  List<TermEnum> termEnums();
+
+  /**
+   * A term enumeration to be registered with all names and alternative prefixes,
+   * as {@link TermFactory#registerTermEnum(Class, String...)} does,
+   * or only with qualified and prefixed names as {@link TermFactory#registerQualifiedTermEnum(Class)} does.
+   */
+  final class TermEnum {
+    private final Class<? extends Enum<?>> termClass;
+    private final boolean qualifiedOnly;
+    private final String[] altPrefixes;
+
+    TermEnum(Class<? extends Enum<?>> termClass, boolean qualifiedOnly, String... altPrefixes) {
+      this.termClass = Objects.requireNonNull(termClass, "termClass is required");
+      this.qualifiedOnly = qualifiedOnly;
+      this.altPrefixes = altPrefixes.clone();
+    }
+
+    /**
+     * @param altPrefixes alternative prefixes to be used to register simple prefixed term names
+     */
+    public static <T extends Enum<?> & Term & AlternativeNames> TermEnum of(Class<T> termClass, String... altPrefixes) {
+      return new TermEnum(termClass, false, altPrefixes);
+    }
+
+    /**
+     * Registers only the qualified and prefixed names, to avoid clashes with more important terms.
+     */
+    public static <T extends Enum<?> & Term> TermEnum qualifiedOnly(Class<T> termClass) {
+      return new TermEnum(termClass, true);
+    }
+
+    public Class<? extends Enum<?>> getTermClass() {
+      return termClass;
+    }
+
+    public boolean isQualifiedOnly() {
+      return qualifiedOnly;
+    }
+
+    public String[] getAltPrefixes() {
+      return altPrefixes.clone();
+    }
+  }
+}
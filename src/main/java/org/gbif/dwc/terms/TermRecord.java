@@ -0,0 +1,293 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A record of term values kept in a flat array, with a column for each term of a shared {@link Layout}.
+ * Values are found by the {@link TermFactory#id(Term) term identifier} without hashing,
+ * so records are cheap to create and to read, for example for each row of a large data file.
+ * Records are not thread safe.
+ *
+ * {@link #asMap()} offers a view for code written for {@code Map<Term, String>} records.
+ */
+public final class TermRecord {
+
+  private final Layout layout;
+  private final String[] values;
+
+  /**
+   * An immutable list of term columns shared by many records.
+   */
+  public static final class Layout {
+    private final Term[] columns;
+    // the terms identifiers were assigned to, kept so the identifiers are not reused, see TermIds.pin
+    private final Term[] pinned;
+    // column of each term by term identifier, -1 for terms not in the layout
+    private final int[] columnsById;
+
+    private Layout(Term[] columns) {
+      this.columns = columns;
+      this.pinned = new Term[columns.length];
+      int max = -1;
+      int[] ids = new int[columns.length];
+      for (int i = 0; i < columns.length; i++) {
+        pinned[i] = TermIds.pin(columns[i]);
+        ids[i] = TermIds.id(pinned[i]);
+        max = Math.max(max, ids[i]);
+      }
+      columnsById = new int[max + 1];
+      Arrays.fill(columnsById, -1);
+      for (int i = 0; i < columns.length; i++) {
+        if (columnsById[ids[i]] >= 0) {
+          throw new IllegalArgumentException("Term " + columns[i] + " is used for more than one column");
+        }
+        columnsById[ids[i]] = i;
+      }
+    }
+
+    /**
+     * @throws IllegalArgumentException if a term is given more than once
+     */
+    public static Layout of(Term... columns) {
+      return new Layout(columns.clone());
+    }
+
+    /**
+     * @throws IllegalArgumentException if a term is given more than once
+     */
+    public static Layout of(List<? extends Term> columns) {
+      return new Layout(columns.toArray(new Term[0]));
+    }
+
+    /**
+     * @return the column of the term or -1 if the term is not part of the layout
+     */
+    public int column(Term term) {
+      // never assign an identifier to a term just read
+      int id = TermIds.find(term);
+      return id >= 0 && id < columnsById.length ? columnsById[id] : -1;
+    }
+
+    public boolean contains(Term term) {
+      return column(term) >= 0;
+    }
+
+    public Term term(int column) {
+      return columns[column];
+    }
+
+    public List<Term> terms() {
+      return Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    public int size() {
+      return columns.length;
+    }
+
+    /**
+     * @return a new record without any values
+     */
+    public TermRecord newRecord() {
+      return new TermRecord(this, new String[columns.length]);
+    }
+
+    /**
+     * @return a new record with the given values, not copied, in the order of the columns
+     */
+    public TermRecord wrap(String... values) {
+      if (values.length != columns.length) {
+        throw new IllegalArgumentException(values.length + " values given for " + columns.length + " columns");
+      }
+      return new TermRecord(this, values);
+    }
+  }
+
+  private TermRecord(Layout layout, String[] values) {
+    this.layout = layout;
+    this.values = values;
+  }
+
+  public Layout layout() {
+    return layout;
+  }
+
+  /**
+   * @return the value of the term or null if there is none or the term is not part of the layout
+   */
+  public String get(Term term) {
+    int column = layout.column(term);
+    return column >= 0 ? values[column] : null;
+  }
+
+  public String get(int column) {
+    return values[column];
+  }
+
+  /**
+   * @throws IllegalArgumentException if the term is not part of the layout
+   */
+  public void set(Term term, String value) {
+    int column = layout.column(term);
+    if (column < 0) {
+      throw new IllegalArgumentException("Term " + term + " is not part of the record layout");
+    }
+    values[column] = value;
+  }
+
+  public void set(int column, String value) {
+    values[column] = value;
+  }
+
+  /**
+   * Removes all values, so the record can be reused.
+   */
+  public void clear() {
+    Arrays.fill(values, null);
+  }
+
+  /**
+   * @return a modifiable view of all terms with a value, only terms of the layout can be added
+   */
+  public Map<Term, String> asMap() {
+    return new MapView();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof TermRecord)) return false;
+    TermRecord that = (TermRecord) o;
+    return asMap().equals(that.asMap());
+  }
+
+  @Override
+  public int hashCode() {
+    return asMap().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return asMap().toString();
+  }
+
+  private final class MapView extends AbstractMap<Term, String> {
+
+    @Override
+    public String get(Object key) {
+      return key instanceof Term ? TermRecord.this.get((Term) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public String put(Term key, String value) {
+      String old = TermRecord.this.get(key);
+      set(key, value);
+      return old;
+    }
+
+    @Override
+    public String remove(Object key) {
+      if (!(key instanceof Term)) {
+        return null;
+      }
+      int column = layout.column((Term) key);
+      if (column < 0) {
+        return null;
+      }
+      String old = values[column];
+      values[column] = null;
+      return old;
+    }
+
+    @Override
+    public Set<Entry<Term, String>> entrySet() {
+      return new AbstractSet<Entry<Term, String>>() {
+        @Override
+        public Iterator<Entry<Term, String>> iterator() {
+          return new Iterator<Entry<Term, String>>() {
+            private int next = advance(0);
+            private int last = -1;
+
+            private int advance(int from) {
+              while (from < values.length && values[from] == null) {
+                from++;
+              }
+              return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+              return next < values.length;
+            }
+
+            @Override
+            public Entry<Term, String> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              last = next;
+              next = advance(next + 1);
+              int column = last;
+              return new SimpleEntry<Term, String>(layout.columns[column], values[column]) {
+                @Override
+                public String setValue(String value) {
+                  super.setValue(value);
+                  String old = values[column];
+                  values[column] = value;
+                  return old;
+                }
+              };
+            }
+
+            @Override
+            public void remove() {
+              if (last < 0) {
+                throw new IllegalStateException();
+              }
+              values[last] = null;
+              last = -1;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          int size = 0;
+          for (String v : values) {
+            if (v != null) {
+              size++;
+            }
+          }
+          return size;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Immutable set of terms of any vocabularies, kept as a bit set over the term identifiers of {@link TermFactory#id(Term)}.
+ * Just as an {@link java.util.EnumSet} does for a single enumeration, a membership test costs a single bit test
+ * and set operations combine whole words of 64 terms.
+ *
+ * Terms are iterated in identifier order, which is the ordinal order for the constants of an enumeration.
+ * As identifiers differ between JVMs sets are not serializable.
+ */
+public final class TermSet extends AbstractSet<Term> {
+
+  private static final Term[] NO_TERMS = new Term[0];
+  private static final TermSet EMPTY = new TermSet(new long[0], NO_TERMS);
+
+  // never ends with a zero word, so equal sets have equal words
+  private final long[] words;
+  private final int size;
+  // the members that are no enum constants, kept so their identifiers are not reused, see TermIds.pin
+  private final Term[] pinned;
+
+  private TermSet(long[] words, Term[] pinned) {
+    this.words = words;
+    this.pinned = pinned;
+    int s = 0;
+    for (long w : words) {
+      s += Long.bitCount(w);
+    }
+    this.size = s;
+  }
+
+  /**
+   * @param pinned pinned terms of which those contained in the words are kept
+   */
+  private static TermSet of(long[] words, Term[]... pinned) {
+    int len = words.length;
+    while (len > 0 && words[len - 1] == 0) {
+      len--;
+    }
+    if (len == 0) {
+      return EMPTY;
+    }
+    words = len == words.length ? words : Arrays.copyOf(words, len);
+    List<Term> kept = new ArrayList<>();
+    // bits of terms not yet kept, so each term is kept once
+    long[] pending = words.clone();
+    for (Term[] terms : pinned) {
+      for (Term t : terms) {
+        int id = TermIds.find(t);
+        if ((id >>> 6) < pending.length && (pending[id >>> 6] & (1L << id)) != 0) {
+          pending[id >>> 6] &= ~(1L << id);
+          kept.add(t);
+        }
+      }
+    }
+    return new TermSet(words, kept.isEmpty() ? NO_TERMS : kept.toArray(NO_TERMS));
+  }
+
+  public static TermSet empty() {
+    return EMPTY;
+  }
+
+  public static TermSet of(Term... terms) {
+    return copyOf(Arrays.asList(terms));
+  }
+
+  public static TermSet copyOf(Collection<? extends Term> terms) {
+    if (terms instanceof TermSet) {
+      return (TermSet) terms;
+    }
+    int[] ids = new int[terms.size()];
+    List<Term> pinned = new ArrayList<>();
+    int max = -1;
+    int i = 0;
+    for (Term t : terms) {
+      Term p = TermIds.pin(t);
+      if (!(p instanceof Enum)) {
+        pinned.add(p);
+      }
+      ids[i] = TermIds.id(p);
+      max = Math.max(max, ids[i++]);
+    }
+    long[] words = new long[(max >>> 6) + 1];
+    for (int id : ids) {
+      words[id >>> 6] |= 1L << id;
+    }
+    return of(words, pinned.toArray(NO_TERMS));
+  }
+
+  /**
+   * @return all constants of a term enumeration
+   */
+  public static <T extends Enum<T> & Term> TermSet allOf(Class<T> vocabulary) {
+    return of(vocabulary.getEnumConstants());
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof Term)) {
+      return false;
+    }
+    int id = TermIds.find((Term) o);
+    return id >= 0 && (id >>> 6) < words.length && (words[id >>> 6] & (1L << id)) != 0;
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    if (!(c instanceof TermSet)) {
+      return super.containsAll(c);
+    }
+    long[] other = ((TermSet) c).words;
+    if (other.length > words.length) {
+      return false;
+    }
+    for (int i = 0; i < other.length; i++) {
+      if ((other[i] & ~words[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return all terms contained in this or the other set
+   */
+  public TermSet union(TermSet other) {
+    long[] longer = words.length >= other.words.length ? words : other.words;
+    long[] shorter = longer == words ? other.words : words;
+    long[] result = longer.clone();
+    for (int i = 0; i < shorter.length; i++) {
+      result[i] |= shorter[i];
+    }
+    return of(result, pinned, other.pinned);
+  }
+
+  /**
+   * @return all terms contained in both this and the other set
+   */
+  public TermSet intersection(TermSet other) {
+    long[] result = new long[Math.min(words.length, other.words.length)];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = words[i] & other.words[i];
+    }
+    return of(result, pinned);
+  }
+
+  /**
+   * @return all terms of this set not contained in the other set
+   */
+  public TermSet difference(TermSet other) {
+    long[] result = words.clone();
+    for (int i = 0; i < Math.min(result.length, other.words.length); i++) {
+      result[i] &= ~other.words[i];
+    }
+    return of(result, pinned);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<Term> iterator() {
+    return new Iterator<Term>() {
+      private int word = 0;
+      private long bits = words.length > 0 ? words[0] : 0;
+
+      @Override
+      public boolean hasNext() {
+        while (bits == 0 && word + 1 < words.length) {
+          bits = words[++word];
+        }
+        return bits != 0;
+      }
+
+      @Override
+      public Term next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+        return TermIds.termOf(id);
+      }
+    };
+  }
+
+  @Override
+  public void forEach(Consumer<? super Term> action) {
+    for (int i = 0; i < words.length; i++) {
+      long bits = words[i];
+      while (bits != 0) {
+        action.accept(TermIds.termOf((i << 6) + Long.numberOfTrailingZeros(bits)));
+        bits &= bits - 1;
+      }
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof TermSet) {
+      return Arrays.equals(words, ((TermSet) o).words);
+    }
+    return super.equals(o);
+  }
+}
@@ -30,6 +30,7 @@ public class Terms {
 
   private static final Pattern NULL_PATTERN = Pattern.compile("^\\s*(\\\\N|\\\\?NULL)\\s*$");
   private static final List<Term> VOCABULARY_BACKED_TERMS = findVocabularyBackedTerms();
+  private static final TermSet VOCABULARY_BACKED_TERM_SET = TermSet.copyOf(VOCABULARY_BACKED_TERMS);
 
   /**
    * static utility class
@@ -54,6 +55,22 @@ public class Terms {
     return null;
   }
 
+  /**
+   * Tries various terms in given order until it finds a non empty value,
+   * just as {@link #getValueOfFirst(Map, Term...)} does for records kept in a map.
+   *
+   * @return value or null
+   */
+  public static String getValueOfFirst(TermRecord record, Term... terms) {
+    for (Term t : terms) {
+      String val = clean(record.get(t));
+      if (val != null) {
+        return val;
+      }
+    }
+    return null;
+  }
+
   private static String clean(String str) {
     if (isTermValueBlank(str)) {
       return null;
@@ -79,6 +96,13 @@ public class Terms {
     return VOCABULARY_BACKED_TERMS;
   }
 
+  /**
+   * Returns all the {@link Term} that are annotated with {@link Vocabulary} as a set for fast membership tests.
+   */
+  public static TermSet getVocabularyBackedTermSet() {
+    return VOCABULARY_BACKED_TERM_SET;
+  }
+
   private static List<Term> findVocabularyBackedTerms() {
     return Stream.of(getTerms(AcefTerm.class),
                      getTerms(AcTerm.class),
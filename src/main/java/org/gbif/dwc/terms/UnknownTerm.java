@@ -16,62 +16,44 @@
 package org.gbif.dwc.terms;
 
 import java.io.Serializable;
-import java.io.UnsupportedEncodingException;
 import java.net.URI;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
 public class UnknownTerm implements Term, Serializable {
 
+  private static final long serialVersionUID = 4776241212048196497L;
+
   private final URI uri;
   private final String name;
   private final String prefix;
   private final boolean isClass;
+  // derived from the fields above on first use
+  private transient String qualifiedName;
+  private transient String prefixedName;
+  private transient int hash;
+  private transient URI namespace;
 
   private static final String NS = "unknown.org";
   private static final String SCHEME = "http://";
-  private static final String URL = SCHEME + NS + "/";
-  private static final String PREFIX = "unknown";
-  private static final Pattern PREFIX_PATTERN = Pattern.compile("^([a-zA-Z0-9]+):([a-zA-Z0-9._+# -]+)$");
+  static final String URL = SCHEME + NS + "/";
+  static final String PREFIX = "unknown";
+
+  private static final TermInterner<UnknownTerm> INTERNER = new TermInterner<>();
 
   public static UnknownTerm build(String name){
     return build(name, false);
   }
 
-  private static URI unknownURI(String name) {
-    return URI.create(URL + name);
-  }
-
+  /**
+   * @throws IllegalArgumentException if no term can be built for the name,
+   * use {@link UnknownTermParser#parse(String, boolean)} to avoid the exception
+   */
   public static UnknownTerm build(String name, boolean isClass){
-    Matcher m = PREFIX_PATTERN.matcher(name);
-    if (m.find()) {
-      if (m.group(1).equalsIgnoreCase(PREFIX)) {
-        // unknown:
-        return new UnknownTerm(unknownURI(m.group(2)), PREFIX, m.group(2), isClass);
-      } else {
-        return new UnknownTerm(unknownURI(m.group(1) + "/" + m.group(2)), m.group(1), m.group(2), isClass);
-      }
-    }
-    URI uri = URI.create(name);
-    if (uri.getAuthority() != null) {
-      return new UnknownTerm(uri, isClass);
-
-    } else if (uri.getScheme() != null) {
-      String scheme = uri.getScheme().equalsIgnoreCase(PREFIX) ? "" : uri.getScheme() + "/";
-      return build(URL + scheme + uri.getSchemeSpecificPart(), isClass);
-
-    } else {
-      if (!name.contains("/") && !name.contains("#")) {
-        try {
-          name = URLEncoder.encode(name, StandardCharsets.UTF_8.name());
-        } catch (UnsupportedEncodingException e) {
-        }
-      }
-      return build(URL +name, isClass);
+    UnknownTermParser.Result r = UnknownTermParser.parse(name, isClass);
+    if (!r.isValid()) {
+      throw new IllegalArgumentException(r.getError());
     }
+    return r.getTerm();
   }
 
   public static UnknownTerm build(String qualifiedName, String simpleName){
@@ -79,7 +61,25 @@ public class UnknownTerm implements Term, Serializable {
   }
 
   public static UnknownTerm build(String qualifiedName, String simpleName, boolean isClass){
-    return new UnknownTerm(URI.create(qualifiedName), null, simpleName, isClass);
+    return intern(new UnknownTerm(URI.create(qualifiedName), null, simpleName, isClass));
+  }
+
+  /**
+   * @return the canonical instance of all unknown terms with the same names and class flag.
+   * Instances of subclasses are returned as they are.
+   */
+  static UnknownTerm intern(UnknownTerm term) {
+    if (term.getClass() != UnknownTerm.class) {
+      return term;
+    }
+    return INTERNER.intern(Arrays.asList(term.qualifiedName(), term.prefix, term.name, term.isClass), term);
+  }
+
+  /**
+   * Replaces deserialized terms with their canonical instance.
+   */
+  private Object readResolve() {
+    return intern(this);
   }
 
   public UnknownTerm(URI uri, String prefix, String name, boolean isClass) {
@@ -101,7 +101,7 @@ public class UnknownTerm implements Term, Serializable {
     this(uri, null, extractName(uri), isClass);
   }
 
-  private static String extractName(URI uri) {
+  static String extractName(URI uri) {
     if (uri == null || !uri.isAbsolute()) {
       throw new IllegalArgumentException("The qualified name URI is required and must be an absolute URI");
     }
@@ -132,7 +132,22 @@ public class UnknownTerm implements Term, Serializable {
 
   @Override
   public String qualifiedName() {
-    return uri.toString();
+    String q = qualifiedName;
+    if (q == null) {
+      q = uri.toString();
+      qualifiedName = q;
+    }
+    return q;
+  }
+
+  @Override
+  public String prefixedName() {
+    String p = prefixedName;
+    if (p == null) {
+      p = prefix != null ? prefix + ":" + simpleName() : qualifiedName();
+      prefixedName = p;
+    }
+    return p;
   }
 
   @Override
@@ -150,11 +165,6 @@ public class UnknownTerm implements Term, Serializable {
     return prefixedName();
   }
 
-  @Override
-  public String prefixedName() {
-    return prefix != null ? prefix + ":" + simpleName() : qualifiedName();
-  }
-
   @Override
   public String prefix() {
     return prefix;
@@ -162,7 +172,12 @@ public class UnknownTerm implements Term, Serializable {
 
   @Override
   public URI namespace() {
-    return URI.create(uri.getScheme() + "://" + uri.getAuthority());
+    URI ns = namespace;
+    if (ns == null) {
+      ns = URI.create(uri.getScheme() + "://" + uri.getAuthority());
+      namespace = ns;
+    }
+    return ns;
   }
 
   @Override
@@ -177,6 +192,11 @@ public class UnknownTerm implements Term, Serializable {
 
   @Override
   public int hashCode() {
-    return qualifiedName().hashCode();
+    int h = hash;
+    if (h == 0) {
+      h = qualifiedName().hashCode();
+      hash = h;
+    }
+    return h;
   }
 }
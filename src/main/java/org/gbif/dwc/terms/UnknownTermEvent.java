@@ -0,0 +1,41 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for every unknown term created by a term factory, including building the term.
+ */
+@Name("org.gbif.dwc.terms.UnknownTermCreated")
+@Label("Unknown Term Created")
+@Category({"GBIF", "Darwin Core Terms"})
+final class UnknownTermEvent extends Event {
+
+  @Label("Name")
+  @Description("The name looked up")
+  String name;
+
+  @Label("Qualified Name")
+  String qualifiedName;
+
+  @Label("Class Term")
+  boolean isClass;
+}
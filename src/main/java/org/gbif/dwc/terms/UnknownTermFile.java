@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact binary file of unknown terms created by a factory, so they can be restored in another process
+ * without parsing their names again.
+ *
+ * Every record holds the name the term was created for, its qualified name, prefix, simple name and whether
+ * it is a class term. BibTeX terms are stored by their qualified name only and built again by their namespace family.
+ */
+final class UnknownTermFile {
+
+  private static final int MAGIC = 0x44775554;
+  // increase whenever the format changes
+  private static final int VERSION = 1;
+
+  private static final int CLASS = 1;
+  private static final int PREFIX = 2;
+  private static final int FAMILY = 4;
+
+  private UnknownTermFile() {
+  }
+
+  /**
+   * A term read from the file together with the name it was created for.
+   */
+  static final class Record {
+    final String name;
+    final String qualifiedName;
+    final String prefix;
+    final String simpleName;
+    final boolean isClass;
+    final boolean family;
+
+    Record(String name, String qualifiedName, String prefix, String simpleName, boolean isClass, boolean family) {
+      this.name = name;
+      this.qualifiedName = qualifiedName;
+      this.prefix = prefix;
+      this.simpleName = simpleName;
+      this.isClass = isClass;
+      this.family = family;
+    }
+
+    /**
+     * @return the unknown term, not to be called for BibTeX terms
+     */
+    UnknownTerm toTerm() {
+      return UnknownTerm.intern(new UnknownTerm(URI.create(qualifiedName), prefix, simpleName, isClass));
+    }
+  }
+
+  static void write(OutputStream stream, List<String> names, List<Term> terms) throws IOException {
+    GZIPOutputStream gzip = new GZIPOutputStream(stream);
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip));
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(names.size());
+    for (int i = 0; i < names.size(); i++) {
+      Term t = terms.get(i);
+      boolean family = !(t instanceof UnknownTerm);
+      int flags = (t.isClass() ? CLASS : 0) | (family ? FAMILY : 0) | (!family && t.prefix() != null ? PREFIX : 0);
+      out.writeByte(flags);
+      out.writeUTF(names.get(i));
+      out.writeUTF(t.qualifiedName());
+      if (!family) {
+        if (t.prefix() != null) {
+          out.writeUTF(t.prefix());
+        }
+        out.writeUTF(t.simpleName());
+      }
+    }
+    out.flush();
+    // leave the given stream open to the caller
+    gzip.finish();
+  }
+
+  static List<Record> read(InputStream stream) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not an unknown term file");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported unknown term file version " + version);
+    }
+    int size = in.readInt();
+    List<Record> records = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      int flags = in.readByte();
+      String name = in.readUTF();
+      String qualifiedName = in.readUTF();
+      if ((flags & FAMILY) != 0) {
+        records.add(new Record(name, qualifiedName, null, null, false, true));
+      } else {
+        String prefix = (flags & PREFIX) != 0 ? in.readUTF() : null;
+        records.add(new Record(name, qualifiedName, prefix, in.readUTF(), (flags & CLASS) != 0, false));
+      }
+    }
+    return records;
+  }
+}
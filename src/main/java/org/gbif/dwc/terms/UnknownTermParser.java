@@ -0,0 +1,351 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses term names into {@link UnknownTerm}s without throwing exceptions for invalid names,
+ * so corrupt or hostile input is cheap to reject.
+ *
+ * A name is classified in a single pass as a prefixed name like dwc:fooBar, an absolute URI with an authority,
+ * a URI with only a scheme or a bare name. Characters that can never be part of a URI are rejected during the same pass.
+ * The terms built are the same as {@link UnknownTerm#build(String, boolean)} has always built.
+ */
+public final class UnknownTermParser {
+
+  private static final char LINE_SEPARATOR = 0x2028;
+  private static final char PARAGRAPH_SEPARATOR = 0x2029;
+
+  /**
+   * The kind of name that was parsed.
+   */
+  public enum Kind {
+    /**
+     * A prefix and a simple name like dwc:fooBar or unknown:fooBar.
+     */
+    PREFIXED,
+    /**
+     * A URI with an authority like http://example.org/terms/fooBar.
+     */
+    ABSOLUTE_URI,
+    /**
+     * A URI with a scheme but no authority like urn:fooBar, placed into the unknown namespace.
+     */
+    SCHEME,
+    /**
+     * Any other name like fooBar, placed into the unknown namespace.
+     */
+    BARE_NAME,
+    /**
+     * A name no term can be built for.
+     */
+    INVALID
+  }
+
+  /**
+   * The term built for a name or the reason why the name is invalid.
+   */
+  public static final class Result {
+    private final Kind kind;
+    private final UnknownTerm term;
+    private final String error;
+
+    private Result(Kind kind, UnknownTerm term, String error) {
+      this.kind = kind;
+      this.term = term;
+      this.error = error;
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    public boolean isValid() {
+      return term != null;
+    }
+
+    /**
+     * @return the term or null if the name is invalid
+     */
+    public UnknownTerm getTerm() {
+      return term;
+    }
+
+    /**
+     * @return the reason why the name is invalid or null if it is valid
+     */
+    public String getError() {
+      return error;
+    }
+
+    @Override
+    public String toString() {
+      return term != null ? kind + " " + term.qualifiedName() : "INVALID " + error;
+    }
+  }
+
+  private UnknownTermParser() {
+  }
+
+  /**
+   * @return the parsed unknown term or the reason why the name is invalid, never null
+   */
+  public static Result parse(String name, boolean isClass) {
+    if (name == null) {
+      return invalid("The name is required");
+    }
+    Result r = prefixed(name, isClass);
+    return r != null ? r : uri(name, isClass);
+  }
+
+  private static Result invalid(String error) {
+    return new Result(Kind.INVALID, null, error);
+  }
+
+  private static Result valid(Kind kind, UnknownTerm term) {
+    return new Result(kind, term, null);
+  }
+
+  /**
+   * Parses names consisting of an alphanumerical prefix, a colon and a simple name
+   * of alphanumerical characters, dots, underscores, plus and hash signs, spaces and hyphens.
+   * A final line terminator is ignored.
+   *
+   * @return the result or null if the name is not a prefixed name
+   */
+  private static Result prefixed(String name, boolean isClass) {
+    int len = name.length();
+    int colon = 0;
+    while (colon < len && isAlphanumeric(name.charAt(colon))) {
+      colon++;
+    }
+    if (colon == 0 || colon == len || name.charAt(colon) != ':') {
+      return null;
+    }
+    int end = len - lineTerminatorLength(name);
+    if (end <= colon + 1) {
+      return null;
+    }
+    int hashes = 0;
+    boolean space = false;
+    for (int i = colon + 1; i < end; i++) {
+      char c = name.charAt(i);
+      if (c == '#') {
+        hashes++;
+      } else if (c == ' ') {
+        space = true;
+      } else if (!isAlphanumeric(c) && c != '.' && c != '_' && c != '+' && c != '-') {
+        return null;
+      }
+    }
+    // both would be illegal in the URI
+    if (space) {
+      return invalid("Illegal character in path: " + name);
+    }
+    if (hashes > 1) {
+      return invalid("Illegal character in fragment: " + name);
+    }
+    String prefix = name.substring(0, colon);
+    String simpleName = name.substring(colon + 1, end);
+    if (prefix.equalsIgnoreCase(UnknownTerm.PREFIX)) {
+      return valid(Kind.PREFIXED, UnknownTerm.intern(new UnknownTerm(URI.create(UnknownTerm.URL + simpleName), UnknownTerm.PREFIX, simpleName, isClass)));
+    }
+    return valid(Kind.PREFIXED, UnknownTerm.intern(new UnknownTerm(URI.create(UnknownTerm.URL + prefix + "/" + simpleName), prefix, simpleName, isClass)));
+  }
+
+  /**
+   * Parses all other names as URIs, placing names without an authority into the unknown namespace.
+   */
+  private static Result uri(String name, boolean isClass) {
+    int len = name.length();
+    // index of the colon ending the scheme, if any
+    int scheme = -1;
+    boolean delimiter = false;
+    int hash = -1;
+    int query = -1;
+    boolean slash = false;
+    boolean bracket = false;
+    for (int i = 0; i < len; i++) {
+      char c = name.charAt(i);
+      if (!isUriChar(c)) {
+        return invalid("Illegal character at index " + i + ": " + name);
+      }
+      switch (c) {
+        case '%':
+          if (i + 2 >= len || !isHex(name.charAt(i + 1)) || !isHex(name.charAt(i + 2))) {
+            return invalid("Malformed escape pair at index " + i + ": " + name);
+          }
+          break;
+        case '#':
+          if (hash >= 0) {
+            return invalid("Illegal character in fragment at index " + i + ": " + name);
+          }
+          hash = i;
+          delimiter = true;
+          break;
+        case '/':
+          slash = true;
+          delimiter = true;
+          break;
+        case '?':
+          if (query < 0) {
+            query = i;
+          }
+          delimiter = true;
+          break;
+        case '[':
+        case ']':
+          bracket = true;
+          break;
+        case ':':
+          if (!delimiter && scheme < 0) {
+            scheme = i;
+          }
+          break;
+        default:
+      }
+    }
+    // start of the path, after the scheme and authority
+    int path = 0;
+    if (scheme >= 0) {
+      String error = checkScheme(name, scheme);
+      if (error != null) {
+        return invalid(error);
+      }
+      path = scheme + 1;
+      if (path < len && name.charAt(path) != '/') {
+        // opaque URIs have no path
+        path = len;
+      }
+    }
+    if (name.startsWith("//", path)) {
+      int authority = path + 2;
+      path = authorityEnd(name, authority);
+      if (path == len && path == authority) {
+        return invalid("Expected authority at index " + authority + ": " + name);
+      }
+      if (scheme < 0 && path > authority) {
+        return invalid("The qualified name URI must be an absolute URI: " + name);
+      }
+    }
+    if (bracket) {
+      // brackets are only allowed in IPv6 addresses, queries and fragments
+      int end = Math.min(query >= 0 ? query : len, hash >= 0 ? hash : len);
+      for (int i = path; i < end; i++) {
+        if (name.charAt(i) == '[' || name.charAt(i) == ']') {
+          return invalid("Illegal character in path at index " + i + ": " + name);
+        }
+      }
+    }
+
+    try {
+      URI uri = URI.create(name);
+      if (uri.getAuthority() != null) {
+        String simpleName = UnknownTerm.extractName(uri);
+        if (simpleName.isEmpty()) {
+          return invalid("The simple name is required");
+        }
+        return valid(Kind.ABSOLUTE_URI, UnknownTerm.intern(new UnknownTerm(uri, null, simpleName, isClass)));
+
+      } else if (uri.getScheme() != null) {
+        String prefix = uri.getScheme().equalsIgnoreCase(UnknownTerm.PREFIX) ? "" : uri.getScheme() + "/";
+        return as(Kind.SCHEME, uri(UnknownTerm.URL + prefix + uri.getSchemeSpecificPart(), isClass));
+
+      } else if (!slash && hash < 0) {
+        return as(Kind.BARE_NAME, uri(UnknownTerm.URL + URLEncoder.encode(name, StandardCharsets.UTF_8), isClass));
+
+      } else {
+        return as(Kind.BARE_NAME, uri(UnknownTerm.URL + name, isClass));
+      }
+
+    } catch (IllegalArgumentException e) {
+      // rare malformed URIs not detected above, for example with invalid authorities
+      return invalid(e.getMessage());
+    }
+  }
+
+  private static int authorityEnd(String name, int start) {
+    int i = start;
+    while (i < name.length() && name.charAt(i) != '/' && name.charAt(i) != '?' && name.charAt(i) != '#') {
+      i++;
+    }
+    return i;
+  }
+
+  private static Result as(Kind kind, Result r) {
+    return r.isValid() ? valid(kind, r.term) : r;
+  }
+
+  /**
+   * @return the error of an invalid scheme or scheme specific part or null if valid
+   */
+  private static String checkScheme(String name, int colon) {
+    if (colon == 0) {
+      return "Expected scheme name at index 0: " + name;
+    }
+    if (!isAlpha(name.charAt(0))) {
+      return "Illegal character in scheme name at index 0: " + name;
+    }
+    for (int i = 1; i < colon; i++) {
+      char c = name.charAt(i);
+      if (!isAlphanumeric(c) && c != '+' && c != '-' && c != '.') {
+        return "Illegal character in scheme name at index " + i + ": " + name;
+      }
+    }
+    if (colon + 1 == name.length() || name.charAt(colon + 1) == '#') {
+      return "Expected scheme-specific part at index " + (colon + 1) + ": " + name;
+    }
+    return null;
+  }
+
+  /**
+   * @return the length of a line terminator ending the name or 0
+   */
+  private static int lineTerminatorLength(String name) {
+    int len = name.length();
+    char last = name.charAt(len - 1);
+    if (last == '\n') {
+      return len > 1 && name.charAt(len - 2) == '\r' ? 2 : 1;
+    }
+    return last == '\r' || last == '\u0085' || last == LINE_SEPARATOR || last == PARAGRAPH_SEPARATOR ? 1 : 0;
+  }
+
+  /**
+   * @return false for characters that are illegal in any part of a URI
+   */
+  private static boolean isUriChar(char c) {
+    if (c < 0x80) {
+      return c > ' ' && c < 0x7f && c != '"' && c != '<' && c != '>' && c != '\\' && c != '^' && c != '`'
+          && c != '{' && c != '|' && c != '}';
+    }
+    return !Character.isSpaceChar(c) && !Character.isISOControl(c);
+  }
+
+  private static boolean isAlpha(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isAlphanumeric(char c) {
+    return isAlpha(c) || (c >= '0' && c <= '9');
+  }
+
+  private static boolean isHex(char c) {
+    return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Threadsafe registry of the unknown terms a {@link TermFactory} creates at runtime,
+ * keeping property and class terms distinct.
+ *
+ * The registry can be bounded. It then keeps at most capacity terms strongly and evicts the least recently used ones
+ * using the CLOCK approximation of LRU, so lookups never take a lock. Evicted terms are only weakly referenced:
+ * as long as anyone else still uses an evicted term the registry keeps returning that very instance,
+ * once it has been garbage collected a new, equal instance is created on the next request.
+ */
+final class UnknownTermRegistry {
+
+  private final Map<String, Entry> terms = new ConcurrentHashMap<>();
+  private final Map<String, Entry> classTerms = new ConcurrentHashMap<>();
+  private final ReferenceQueue<Term> queue = new ReferenceQueue<>();
+  private final LongAdder evictions = new LongAdder();
+  private final AtomicInteger pinned = new AtomicInteger();
+
+  // 0 or negative for an unbounded registry
+  private int capacity;
+  // CLOCK ring, all guarded by this
+  private Entry[] ring = new Entry[0];
+  private int hand;
+
+  private static final class Entry extends WeakReference<Term> {
+    private final boolean isClass;
+    private final List<String> keys = new ArrayList<>(4);
+    // strong reference while the registry keeps the term
+    private volatile Term strong;
+    private volatile boolean referenced;
+    // position in the ring, guarded by the registry
+    private int slot = -1;
+
+    private Entry(Term term, boolean isClass, ReferenceQueue<Term> queue) {
+      super(term, queue);
+      this.isClass = isClass;
+      this.strong = term;
+    }
+
+    private synchronized void addKey(String key) {
+      keys.add(key);
+    }
+
+    private synchronized List<String> keys() {
+      return new ArrayList<>(keys);
+    }
+  }
+
+  UnknownTermRegistry(int capacity) {
+    this.capacity = capacity;
+  }
+
+  private Map<String, Entry> map(boolean isClass) {
+    return isClass ? classTerms : terms;
+  }
+
+  /**
+   * @return the unknown term registered under the exact key or null
+   */
+  Term get(String key, boolean isClass) {
+    Entry e = map(isClass).get(key);
+    if (e == null) {
+      return null;
+    }
+    Term t = e.strong;
+    if (t != null) {
+      if (!e.referenced) {
+        e.referenced = true;
+      }
+      return t;
+    }
+    // evicted, but maybe still in use elsewhere
+    t = e.get();
+    if (t != null) {
+      admit(e, t);
+    }
+    return t;
+  }
+
+  boolean isEmpty(boolean isClass) {
+    return map(isClass).isEmpty();
+  }
+
+  /**
+   * Returns the term registered under the key or creates and registers a new one.
+   * A new term is also registered under the normalised key, the alias given by the alias function
+   * and the normalised alias, unless these keys are already taken.
+   */
+  Term computeIfAbsent(String key, boolean isClass, Function<String, Term> factory, Function<Term, String> alias) {
+    expunge();
+    Map<String, Entry> map = map(isClass);
+    Entry[] created = new Entry[1];
+    // strong reference taken inside compute, as a weakly held entry can be cleared at any time after it
+    Term[] result = new Term[1];
+    Entry e = map.compute(key, (k, old) -> {
+      Term existing = old != null ? old.get() : null;
+      if (existing != null) {
+        result[0] = existing;
+        return old;
+      }
+      result[0] = factory.apply(k);
+      created[0] = new Entry(result[0], isClass, queue);
+      return created[0];
+    });
+    Term term = result[0];
+    if (created[0] == null) {
+      // use the same path as a lookup to refresh or re-admit the existing term
+      Term t = get(key, isClass);
+      return t != null ? t : term;
+    }
+
+    addKeys(map, e, key, term, alias);
+    return term;
+  }
+
+  /**
+   * Registers terms created before, for example by another process, just as computeIfAbsent would have created them.
+   * Terms whose key is already taken are skipped.
+   *
+   * @return the number of terms added
+   */
+  int addAll(Map<String, Term> created, Function<Term, String> alias) {
+    expunge();
+    int added = 0;
+    for (Map.Entry<String, Term> c : created.entrySet()) {
+      Term term = c.getValue();
+      Map<String, Entry> map = map(term.isClass());
+      Entry e = new Entry(term, term.isClass(), queue);
+      Entry stored = map.compute(c.getKey(), (k, old) -> old == null || old.get() == null ? e : old);
+      if (stored == e) {
+        addKeys(map, e, c.getKey(), term, alias);
+        added++;
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Adds the keys of a new entry already stored under the given key and keeps its term.
+   */
+  private void addKeys(Map<String, Entry> map, Entry e, String key, Term term, Function<Term, String> alias) {
+    e.addKey(key);
+    pinned.incrementAndGet();
+    addKey(map, TermFactory.normaliseTerm(key), e);
+    String a = alias.apply(term);
+    if (!TermFactory.isNullOrEmpty(a) && addKey(map, a, e)) {
+      addKey(map, TermFactory.normaliseTerm(a), e);
+    }
+    admit(e, term);
+  }
+
+  /**
+   * Iterates over all terms still in use with the key they were created for.
+   */
+  void forEach(BiConsumer<String, Term> consumer) {
+    Map<Entry, Boolean> entries = new IdentityHashMap<>();
+    for (Map<String, Entry> map : List.of(terms, classTerms)) {
+      for (Entry e : map.values()) {
+        if (entries.put(e, Boolean.TRUE) == null) {
+          Term t = e.get();
+          List<String> keys = e.keys();
+          if (t != null && !keys.isEmpty()) {
+            consumer.accept(keys.get(0), t);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds an entry under a key unless the key is taken by a live term.
+   */
+  private static boolean addKey(Map<String, Entry> map, String key, Entry e) {
+    Entry stored = map.compute(key, (k, old) -> old == null || old.get() == null ? e : old);
+    if (stored == e) {
+      e.addKey(key);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Keeps the term strongly, evicting the least recently used term if the registry is full.
+   */
+  private synchronized void admit(Entry e, Term term) {
+    if (e.strong == null) {
+      e.strong = term;
+      pinned.incrementAndGet();
+    }
+    if (capacity <= 0 || e.slot >= 0) {
+      return;
+    }
+    if (ring.length != capacity) {
+      ring = new Entry[capacity];
+      hand = 0;
+    }
+    while (true) {
+      Entry current = ring[hand];
+      if (current == null) {
+        break;
+      }
+      if (current.referenced) {
+        // second chance
+        current.referenced = false;
+        hand = (hand + 1) % ring.length;
+      } else {
+        current.strong = null;
+        current.slot = -1;
+        pinned.decrementAndGet();
+        evictions.increment();
+        break;
+      }
+    }
+    ring[hand] = e;
+    e.slot = hand;
+    e.referenced = false;
+    hand = (hand + 1) % ring.length;
+  }
+
+  /**
+   * Removes all keys of terms that have been garbage collected.
+   */
+  private void expunge() {
+    Reference<? extends Term> ref;
+    while ((ref = queue.poll()) != null) {
+      Entry e = (Entry) ref;
+      Map<String, Entry> map = map(e.isClass);
+      for (String key : e.keys()) {
+        map.remove(key, e);
+      }
+    }
+  }
+
+  /**
+   * Changes the capacity, evicting terms if the registry holds more than the new capacity.
+   * @param capacity maximum number of terms to keep strongly or 0 for an unbounded registry
+   */
+  synchronized void setCapacity(int capacity) {
+    this.capacity = capacity;
+    ring = new Entry[Math.max(capacity, 0)];
+    hand = 0;
+    // re-admit all currently kept terms, each entry only once even if it has several keys
+    Map<Entry, Boolean> entries = new IdentityHashMap<>();
+    for (Map<String, Entry> map : List.of(terms, classTerms)) {
+      for (Entry e : map.values()) {
+        e.slot = -1;
+        if (e.strong != null) {
+          entries.put(e, Boolean.TRUE);
+        }
+      }
+    }
+    for (Entry e : entries.keySet()) {
+      admit(e, e.strong);
+    }
+  }
+
+  synchronized int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return number of unknown terms currently kept strongly by the registry
+   */
+  int size() {
+    return pinned.get();
+  }
+
+  /**
+   * @return number of terms evicted so far
+   */
+  long evictions() {
+    return evictions.sum();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Works on UTF-8 encoded names in byte buffers as if they were decoded into Java strings, but without decoding them.
+ * Malformed UTF-8 never equals any string, callers should decode those with the usual replacement rules instead.
+ */
+final class Utf8Names {
+
+  private static final long MALFORMED = -1;
+
+  private Utf8Names() {
+  }
+
+  /**
+   * @return the same value as the hash code of the decoded string
+   */
+  static int hash(ByteBuffer buf, int from, int to) {
+    int h = 0;
+    int i = from;
+    while (i < to) {
+      int b = buf.get(i);
+      if (b >= 0) {
+        h = 31 * h + b;
+        i++;
+      } else {
+        long d = decode(buf, i, to);
+        if (d == MALFORMED) {
+          return h;
+        }
+        int cp = (int) (d >>> 8);
+        if (Character.isBmpCodePoint(cp)) {
+          h = 31 * h + cp;
+        } else {
+          h = 31 * h + Character.highSurrogate(cp);
+          h = 31 * h + Character.lowSurrogate(cp);
+        }
+        i += (int) (d & 0xFF);
+      }
+    }
+    return h;
+  }
+
+  /**
+   * @return true if the bytes are well formed UTF-8 and decode to the given string
+   */
+  static boolean equals(ByteBuffer buf, int from, int to, String str) {
+    final int len = str.length();
+    int idx = 0;
+    int i = from;
+    while (i < to) {
+      int b = buf.get(i);
+      if (b >= 0) {
+        if (idx >= len || str.charAt(idx++) != b) {
+          return false;
+        }
+        i++;
+      } else {
+        long d = decode(buf, i, to);
+        if (d == MALFORMED) {
+          return false;
+        }
+        int cp = (int) (d >>> 8);
+        if (Character.isBmpCodePoint(cp)) {
+          if (idx >= len || str.charAt(idx++) != cp) {
+            return false;
+          }
+        } else if (idx + 1 >= len
+            || str.charAt(idx++) != Character.highSurrogate(cp)
+            || str.charAt(idx++) != Character.lowSurrogate(cp)) {
+          return false;
+        }
+        i += (int) (d & 0xFF);
+      }
+    }
+    return idx == len;
+  }
+
+  /**
+   * Decodes a multi byte sequence starting at position i.
+   * @return the code point shifted left by 8 bits plus the number of bytes used, or MALFORMED
+   */
+  private static long decode(ByteBuffer buf, int i, int to) {
+    int b = buf.get(i) & 0xFF;
+    int n;
+    int cp;
+    int min;
+    if ((b & 0xE0) == 0xC0) {
+      n = 2;
+      cp = b & 0x1F;
+      min = 0x80;
+    } else if ((b & 0xF0) == 0xE0) {
+      n = 3;
+      cp = b & 0x0F;
+      min = 0x800;
+    } else if ((b & 0xF8) == 0xF0) {
+      n = 4;
+      cp = b & 0x07;
+      min = 0x10000;
+    } else {
+      return MALFORMED;
+    }
+    if (i + n > to) {
+      return MALFORMED;
+    }
+    for (int j = 1; j < n; j++) {
+      int c = buf.get(i + j) & 0xFF;
+      if ((c & 0xC0) != 0x80) {
+        return MALFORMED;
+      }
+      cp = (cp << 6) | (c & 0x3F);
+    }
+    if (cp < min || cp > Character.MAX_CODE_POINT || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)) {
+      return MALFORMED;
+    }
+    return ((long) cp << 8) | n;
+  }
+}
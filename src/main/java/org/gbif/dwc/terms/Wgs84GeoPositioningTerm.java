@@ -34,6 +34,8 @@ public enum Wgs84GeoPositioningTerm implements Term, AlternativeNames, Serializa
   private static final String PREFIX = "wgs84geopositioning";
   private static final String NS = "http://www.w3.org/2003/01/geo/wgs84_pos#";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
   public final String[] alternatives;
 
   @Override
@@ -43,7 +45,8 @@ public enum Wgs84GeoPositioningTerm implements Term, AlternativeNames, Serializa
 
   @Override
   public String simpleName() {
-    if (this == long_) {
+    // called by the constructor, before the constants are assigned
+    if (name().equals("long_")) {
       return "long";
     }
     return name();
@@ -72,7 +75,19 @@ public enum Wgs84GeoPositioningTerm implements Term, AlternativeNames, Serializa
     return NS_URI;
   }
 
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
+
   Wgs84GeoPositioningTerm(String... alternatives) {
     this.alternatives = alternatives;
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
   }
 }
@@ -33,6 +33,13 @@ public enum XmpRightsTerm implements Term, AlternativeNames {
   private static final String PREFIX = "xmp";
   private static final String NS = "http://ns.adobe.com/xap/1.0/rights/";
   private static final URI NS_URI = URI.create(NS);
+  private final String qualifiedName;
+  private final String prefixedName;
+
+  XmpRightsTerm() {
+    qualifiedName = TermNames.qualifiedName(NS, simpleName());
+    prefixedName = TermNames.prefixedName(PREFIX, simpleName());
+  }
 
 
   @Override
@@ -64,4 +71,14 @@ public enum XmpRightsTerm implements Term, AlternativeNames {
   public URI namespace() {
     return NS_URI;
   }
+
+  @Override
+  public String qualifiedName() {
+    return qualifiedName;
+  }
+
+  @Override
+  public String prefixedName() {
+    return prefixedName;
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AliasIndexTest {
+
+  @Test
+  public void testAliases() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    List<String> names = tf.aliasesOf(DwcTerm.scientificName);
+    assertEquals("scientificName", names.get(0));
+    assertTrue(names.contains("dwc:scientificName"));
+    assertTrue(names.contains("http://rs.tdwg.org/dwc/terms/scientificName"));
+    assertTrue(names.contains("scientificname"));
+    assertTrue(tf.aliasesOf(DcTerm.modified).contains("dct:modified"));
+    // no work per call
+    assertSame(names, tf.aliasesOf(DwcTerm.scientificName));
+    assertThrows(UnsupportedOperationException.class, () -> names.add("foo"));
+
+    // all names resolve to the term and no other name does
+    for (Term term : new Term[]{DwcTerm.scientificName, DwcTerm.Occurrence, DcTerm.modified, GbifTerm.gbifID,
+        AcTerm.caption, BibTexTerm.CLASS_TERM}) {
+      for (String name : tf.aliasesOf(term)) {
+        assertSame(term, term.isClass() ? tf.findClassTerm(name) : tf.findPropertyTerm(name), name);
+      }
+    }
+    tf.index().table(false).forEach((name, term) -> assertTrue(tf.aliasesOf(term).contains(name), name));
+    tf.index().table(true).forEach((name, term) -> assertTrue(tf.aliasesOf(term).contains(name), name));
+  }
+
+  @Test
+  public void testUnregistered() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    Term unknown = tf.findTerm("myColumn");
+    assertTrue(tf.aliasesOf(unknown).isEmpty());
+  }
+
+  @Test
+  public void testRegisteredAlias() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    assertFalse(tf.aliasesOf(DwcTerm.decimalLatitude).contains("latitudo"));
+    tf.registerAlias("latitudo", DwcTerm.decimalLatitude);
+    assertTrue(tf.aliasesOf(DwcTerm.decimalLatitude).contains("latitudo"));
+  }
+
+  @Test
+  public void testOverlay() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    TermFactory overlay = tf.overlay();
+    overlay.registerAlias("latitudo", DwcTerm.decimalLatitude);
+    overlay.registerAlias("scientificName", GbifTerm.canonicalName);
+
+    List<String> lat = overlay.aliasesOf(DwcTerm.decimalLatitude);
+    assertEquals("latitudo", lat.get(0));
+    assertTrue(lat.containsAll(tf.aliasesOf(DwcTerm.decimalLatitude)));
+    assertFalse(tf.aliasesOf(DwcTerm.decimalLatitude).contains("latitudo"));
+
+    assertTrue(overlay.aliasesOf(GbifTerm.canonicalName).contains("scientificName"));
+    assertFalse(overlay.aliasesOf(DwcTerm.scientificName).contains("scientificName"));
+    assertTrue(overlay.aliasesOf(DwcTerm.scientificName).contains("dwc:scientificName"));
+  }
+}
@@ -15,6 +15,11 @@
  */
 package org.gbif.dwc.terms;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,4 +51,25 @@ class BibTexTermTest {
     assertTrue(BibTexTerm.CLASS_TERM.isClass());
   }
 
+  @Test
+  public void canonicalInstances() throws Exception {
+    BibTexTerm t = BibTexTerm.buildFromURI("http://bibtex.org/editor");
+    assertSame(t, BibTexTerm.buildFromURI("http://bibtex.org/editor"));
+    assertSame(t, BibTexTerm.buildFromPrefix("bib:editor"));
+    assertSame(t, TermFactory.instance().findTerm("http://bibtex.org/editor"));
+    assertNotSame(t, new BibTexTerm("editor"));
+    assertSame(t, BibTexTerm.intern(new BibTexTerm("editor")));
+    assertNotSame(BibTexTerm.CLASS_TERM, BibTexTerm.buildFromPrefix("bib:BibTeX"));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(t);
+      out.writeObject(BibTexTerm.CLASS_TERM);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertSame(t, in.readObject());
+      assertSame(BibTexTerm.CLASS_TERM, in.readObject());
+    }
+  }
+
 }
\ No newline at end of file
@@ -39,6 +39,12 @@ public class DwcTermTest extends TermBaseTest<DwcTerm> {
     assertEquals("http://rs.tdwg.org/dwc/terms/order", DwcTerm.order.qualifiedName());
   }
 
+  @Test
+  public void testNormalisedQualifiedName() {
+    assertEquals(TermFactory.normaliseTerm(DwcTerm.class_.qualifiedName()), DwcTerm.class_.normQName);
+    assertEquals(TermFactory.normaliseTerm(DwcTerm.scientificName.qualifiedName()), DwcTerm.scientificName.normQName);
+  }
+
   @Test
   public void testIsClass() {
     assertTrue(DwcTerm.Taxon.isClass());
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares matching a misspelled name with the symmetric delete index to a linear scan over all names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuzzyTermMatcherBenchmark {
+
+  @Param({"scientifcName", "catalogue number", "xyzzyplugh"})
+  public String name;
+
+  @Param({"1", "2"})
+  public int maxDistance;
+
+  private FuzzyTermMatcher matcher;
+  private final List<String> names = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    matcher = tf.fuzzyMatcher(maxDistance);
+    names.addAll(FuzzyTermMatcher.names(tf.snapshot(), false).keySet());
+  }
+
+  @Benchmark
+  public List<FuzzyTermMatcher.Match> index() {
+    return matcher.match(name);
+  }
+
+  @Benchmark
+  public int scan() {
+    String query = TermFactory.normaliseTerm(name);
+    int found = 0;
+    for (String n : names) {
+      if (FuzzyTermMatcher.distance(query, n, maxDistance) <= maxDistance) {
+        found++;
+      }
+    }
+    return found;
+  }
+}
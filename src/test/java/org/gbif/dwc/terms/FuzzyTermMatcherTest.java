@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FuzzyTermMatcherTest {
+
+  private static Term best(FuzzyTermMatcher matcher, String name) {
+    List<FuzzyTermMatcher.Match> matches = matcher.match(name, 1);
+    return matches.isEmpty() ? null : matches.get(0).getTerm();
+  }
+
+  @Test
+  public void testMisspelled() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    FuzzyTermMatcher matcher = tf.fuzzyMatcher(2);
+    assertSame(DwcTerm.scientificName, best(matcher, "scientifcName"));
+    assertSame(DwcTerm.scientificName, best(matcher, "sceintificName"));
+    assertSame(DwcTerm.scientificName, best(matcher, "dwc:scientifcName"));
+    assertSame(DwcTerm.catalogNumber, best(matcher, "catalogue number"));
+    assertSame(DwcTerm.decimalLatitude, best(matcher, "decimal_lattitude"));
+    assertSame(DwcTerm.occurrenceID, best(matcher, "http://rs.tdwg.org/dwc/terms/ocurrenceID"));
+    assertSame(DwcTerm.Occurrence, best(matcher, "Ocurrence"));
+
+    FuzzyTermMatcher.Match m = matcher.match("scientifcName").get(0);
+    assertEquals(1, m.getDistance());
+    assertEquals("scientificname", m.getName());
+    assertEquals(1 - 1d / 14, m.getScore(), 0.0001);
+
+    assertTrue(matcher.match("completelyDifferent").isEmpty());
+    assertTrue(matcher.match("").isEmpty());
+    assertTrue(matcher.match(null).isEmpty());
+  }
+
+  @Test
+  public void testRanking() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    FuzzyTermMatcher matcher = tf.fuzzyMatcher(2);
+    List<FuzzyTermMatcher.Match> matches = matcher.match("oder");
+    assertTrue(matches.size() > 1);
+    assertSame(DwcTerm.order, matches.get(0).getTerm());
+    assertEquals(1, matches.get(0).getDistance());
+    for (int i = 1; i < matches.size(); i++) {
+      assertTrue(matches.get(i - 1).getDistance() <= matches.get(i).getDistance());
+    }
+    assertEquals(matches.subList(0, 1), matcher.match("oder", 1));
+  }
+
+  /**
+   * Near misses of common column names find the term, including abbreviations.
+   */
+  @Test
+  public void testNearMisses() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    FuzzyTermMatcher matcher = tf.fuzzyMatcher(2);
+    assertSame(DwcTerm.decimalLatitude, best(matcher, "decimal_lat"));
+    assertSame(DwcTerm.decimalLongitude, best(matcher, "decimal_long"));
+    assertSame(DwcTerm.decimalLatitude, best(matcher, "latitud"));
+    assertSame(DwcTerm.catalogNumber, best(matcher, "catalog_no"));
+    assertSame(DwcTerm.catalogNumber, best(matcher, "catalogue_number"));
+    assertSame(DwcTerm.basisOfRecord, best(matcher, "basisofrecrod"));
+    assertSame(DwcTerm.occurrenceID, best(matcher, "ocurrence_id"));
+    assertSame(DwcTerm.recordedByID, best(matcher, "recordedbyidd"));
+
+    // abbreviations rank after all whole names
+    List<FuzzyTermMatcher.Match> matches = matcher.match("occurrence");
+    assertSame(DwcTerm.Occurrence, matches.get(0).getTerm());
+    assertSame(DwcTerm.occurrenceID, matches.get(1).getTerm());
+    assertFalse(matches.get(1).isAbbreviation());
+    assertTrue(matches.get(2).isAbbreviation());
+    assertTrue(matches.get(0).getScore() > matches.get(1).getScore());
+  }
+
+  /**
+   * A misspelled whole name ranks before an exact abbreviation of a longer name.
+   */
+  @Test
+  public void testAbbreviationsRankLast() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    tf.registerAlias("fieldcolour", DwcTerm.fieldNotes);
+    tf.registerAlias("fieldcolorname", DwcTerm.fieldNumber);
+    List<FuzzyTermMatcher.Match> matches = tf.fuzzyMatcher(2).match("field_color");
+    assertSame(DwcTerm.fieldNotes, matches.get(0).getTerm());
+    assertEquals(1, matches.get(0).getDistance());
+    assertFalse(matches.get(0).isAbbreviation());
+    assertSame(DwcTerm.fieldNumber, matches.get(1).getTerm());
+    assertEquals(0, matches.get(1).getDistance());
+    assertTrue(matches.get(1).isAbbreviation());
+  }
+
+  /**
+   * Only simple names, alternative names and aliases are matched,
+   * never the normalised qualified and prefixed names the index also holds.
+   */
+  @Test
+  public void testNames() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    tf.registerAlias("latitudo", DwcTerm.decimalLatitude);
+    Map<String, Term> names = FuzzyTermMatcher.names(tf.snapshot(), false);
+    assertSame(DwcTerm.scientificName, names.get("scientificname"));
+    assertSame(DwcTerm.decimalLatitude, names.get("latitude"));
+    assertSame(DwcTerm.decimalLatitude, names.get("latitudo"));
+    for (String name : new String[]{"rstdwgorgdwctermsscientificname", "dwcscientificname", "gbifrecordedbyid",
+        "rsgbiforgterms10recordedbyid", "purlorgdctermsmodified", "dctermsmodified"}) {
+      assertFalse(names.containsKey(name), name);
+    }
+    for (String name : names.keySet()) {
+      assertFalse(name.startsWith("rstdwgorg") || name.startsWith("purlorg"), name);
+    }
+  }
+
+  /**
+   * The index finds the same names as comparing with every name.
+   */
+  @Test
+  public void testSameAsScan() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    FuzzyTermMatcher matcher = tf.fuzzyMatcher(2);
+    TermIndexSnapshot snapshot = tf.snapshot();
+    for (String name : new String[]{"scientifcName", "catalogue number", "ocurrenceid", "xgenus", "basisofrecrod",
+        "lat", "decimallat", "ac:captoin", "modifeid", "occurrence", "identifiedbyidd"}) {
+      String query = TermFactory.normaliseTerm(name.substring(name.lastIndexOf(':') + 1));
+      Set<Term> expected = new HashSet<>();
+      for (boolean isClass : new boolean[]{false, true}) {
+        FuzzyTermMatcher.names(snapshot, isClass).forEach((n, t) -> {
+          boolean abbreviated = query.length() >= FuzzyTermMatcher.PREFIX_LENGTH && n.length() > query.length()
+              && FuzzyTermMatcher.distance(query, n.substring(0, query.length()), 2) <= 2;
+          if (abbreviated || FuzzyTermMatcher.distance(query, n, 2) <= 2) {
+            expected.add(t);
+          }
+        });
+      }
+      Set<Term> found = new HashSet<>();
+      matcher.match(name).forEach(m -> found.add(m.getTerm()));
+      assertEquals(expected, found, name);
+    }
+  }
+
+  @Test
+  public void testDistance() {
+    assertEquals(0, FuzzyTermMatcher.distance("abc", "abc", 2));
+    assertEquals(1, FuzzyTermMatcher.distance("abc", "acb", 2));
+    assertEquals(1, FuzzyTermMatcher.distance("abc", "abxc", 2));
+    assertEquals(2, FuzzyTermMatcher.distance("abc", "xbcx", 2));
+    assertEquals(3, FuzzyTermMatcher.distance("abc", "xyz", 2));
+    assertEquals(3, FuzzyTermMatcher.distance("a", "abcdef", 2));
+  }
+
+  @Test
+  public void testCached() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    FuzzyTermMatcher matcher = tf.fuzzyMatcher(1);
+    assertSame(matcher, tf.fuzzyMatcher(1));
+    assertEquals(2, tf.fuzzyMatcher(2).getMaxDistance());
+
+    tf.registerAlias("latitudo", DwcTerm.decimalLatitude);
+    FuzzyTermMatcher updated = tf.fuzzyMatcher(1);
+    assertNotSame(matcher, updated);
+    assertSame(DwcTerm.decimalLatitude, best(updated, "lattitudo"));
+    assertThrows(IllegalArgumentException.class, () -> tf.fuzzyMatcher(-1));
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HeaderCacheTest {
+
+  private static final Term[] TERMS = {DwcTerm.occurrenceID, DwcTerm.scientificName};
+
+  @Test
+  public void testLeastRecentlyUsed() {
+    HeaderCache cache = new HeaderCache(2);
+    cache.put(new String[]{"a"}, TERMS, cache.generation());
+    cache.put(new String[]{"b"}, TERMS, cache.generation());
+    assertNotNull(cache.get(new String[]{"a"}));
+    cache.put(new String[]{"c"}, TERMS, cache.generation());
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get(new String[]{"b"}));
+    assertArrayEquals(TERMS, cache.get(new CharSequence[]{new StringBuilder("a")}));
+    assertNotNull(cache.get(new String[]{"c"}));
+
+    cache.setCapacity(1);
+    assertEquals(1, cache.size());
+    assertNotNull(cache.get(new String[]{"c"}));
+
+    cache.setCapacity(0);
+    cache.put(new String[]{"d"}, TERMS, cache.generation());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testNullColumns() {
+    HeaderCache cache = new HeaderCache(10);
+    cache.put(new String[]{"a", null}, TERMS, cache.generation());
+    assertNotNull(cache.get(new String[]{"a", null}));
+    assertNull(cache.get(new String[]{"a", ""}));
+    assertNull(cache.get(new String[]{"a"}));
+  }
+
+  /**
+   * Headers resolved before the cache was cleared are not cached anymore.
+   */
+  @Test
+  public void testStaleGeneration() {
+    HeaderCache cache = new HeaderCache(10);
+    long generation = cache.generation();
+    cache.clear();
+    cache.put(new String[]{"a"}, TERMS, generation);
+    assertEquals(0, cache.size());
+    assertNull(cache.get(new String[]{"a"}));
+    assertEquals(1, cache.misses());
+  }
+
+  /**
+   * Concurrent hits and new headers never return wrong terms nor exceed the capacity.
+   */
+  @Test
+  public void testConcurrent() throws Exception {
+    HeaderCache cache = new HeaderCache(16);
+    ExecutorService exec = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(exec.submit(() -> {
+          for (int n = 0; n < 20_000; n++) {
+            String[] header = {"column" + n % 40};
+            Term[] terms = cache.get(header);
+            if (terms == null) {
+              cache.put(header, new Term[]{UnknownTerm.build(header[0])}, cache.generation());
+            } else {
+              assertEquals(UnknownTerm.build(header[0]), terms[0]);
+            }
+          }
+        }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      exec.shutdownNow();
+    }
+    assertTrue(cache.size() <= 16);
+    assertTrue(cache.hits() > 0);
+  }
+}
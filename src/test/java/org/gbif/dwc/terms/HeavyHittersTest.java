@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HeavyHittersTest {
+
+  @Test
+  public void testTop() {
+    HeavyHitters hh = new HeavyHitters(3);
+    for (int i = 0; i < 10; i++) {
+      hh.add("a");
+    }
+    for (int i = 0; i < 5; i++) {
+      hh.add("b");
+    }
+    hh.add("c");
+    hh.add("d");
+
+    assertEquals(3, hh.size());
+    assertEquals(List.of("a", "b", "d"), new ArrayList<>(hh.top(3).keySet()));
+    // d replaced c and took over its count
+    assertEquals(2, (long) hh.top(3).get("d"));
+    assertEquals(List.of("a"), new ArrayList<>(hh.top(1).keySet()));
+  }
+
+  /**
+   * Names seen more often than total / capacity times are always kept, no matter how much noise is seen.
+   */
+  @Test
+  public void testNoise() {
+    HeavyHitters hh = new HeavyHitters(10);
+    for (int i = 0; i < 10_000; i++) {
+      hh.add("noise" + i);
+      if (i % 5 == 0) {
+        hh.add("frequent");
+      }
+    }
+    Map<String, Long> top = hh.top(10);
+    assertEquals(10, top.size());
+    assertEquals("frequent", top.keySet().iterator().next());
+    assertTrue(top.get("frequent") >= 2_000);
+  }
+
+  @Test
+  public void testConcurrent() throws Exception {
+    HeavyHitters hh = new HeavyHitters(50, 4);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        int thread = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10_000; i++) {
+            hh.add("noise" + thread + "_" + i);
+            if (i % 4 == 0) {
+              hh.add("frequent");
+            }
+            if (i % 10 == 0) {
+              hh.add("common");
+            }
+          }
+        }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Map<String, Long> top = hh.top(2);
+    assertEquals(List.of("frequent", "common"), new ArrayList<>(top.keySet()));
+    // counts are never underestimated
+    assertTrue(top.get("frequent") >= 20_000);
+    assertTrue(top.get("common") >= 8_000);
+    assertEquals(50, hh.size());
+    assertEquals(50, hh.top(Integer.MAX_VALUE).size());
+  }
+
+  @Test
+  public void testExactWithinCapacity() {
+    HeavyHitters hh = new HeavyHitters(100, 8);
+    for (int i = 0; i < 1000; i++) {
+      hh.add("name" + (i % 20));
+    }
+    Map<String, Long> top = hh.top(100);
+    assertEquals(20, top.size());
+    for (long count : top.values()) {
+      assertEquals(50, count);
+    }
+  }
+
+  @Test
+  public void testDisabled() {
+    HeavyHitters hh = new HeavyHitters(0);
+    hh.add("a");
+    assertEquals(0, hh.size());
+    assertTrue(hh.top(10).isEmpty());
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class NamespaceTrieTest {
+
+  @SuppressWarnings("unchecked")
+  private static final Class<? extends Term>[] VOCABULARIES = new Class[]{
+      DwcTerm.class, DcTerm.class, GbifTerm.class, GbifDnaTerm.class, XmpTerm.class, XmpRightsTerm.class, DwcaTerm.class
+  };
+
+  private static TermIndex build(boolean withNamespaces) {
+    TermIndex.Builder builder = TermIndex.EMPTY.toBuilder();
+    for (Class<? extends Term> cl : VOCABULARIES) {
+      for (Term t : cl.getEnumConstants()) {
+        builder.add(t, "adobe");
+        if (t instanceof AlternativeNames) {
+          for (String alt : ((AlternativeNames) t).alternativeNames()) {
+            builder.add(alt, t);
+          }
+        }
+      }
+      if (withNamespaces) {
+        builder.addNamespace(cl.getEnumConstants()[0], "adobe");
+      }
+    }
+    return builder.build();
+  }
+
+  private static List<String> variants(Term t) {
+    List<String> names = new ArrayList<>();
+    for (String name : new String[]{t.qualifiedName(), t.prefixedName(), "adobe:" + t.simpleName()}) {
+      names.add(name);
+      names.add(name.replace("http://", "https://"));
+      names.add(name.toLowerCase());
+      names.add(name.toUpperCase());
+      names.add(name.replace("/terms/", "/terms/_"));
+      names.add(name.replace("http://", "http://s"));
+      names.add(name + "x");
+      names.add(name.substring(0, name.length() - 1));
+    }
+    return names;
+  }
+
+  /**
+   * Routing via namespaces must find exactly what the normalised lookup of the whole name finds.
+   */
+  @Test
+  public void testSameAsNormalised() {
+    TermIndex routed = build(true);
+    TermIndex plain = build(false);
+    int found = 0;
+    for (Class<? extends Term> cl : VOCABULARIES) {
+      for (Term t : cl.getEnumConstants()) {
+        for (String name : variants(t)) {
+          for (boolean isClass : new boolean[]{false, true}) {
+            Term expected = plain.getNormalised(name, isClass);
+            assertSame(expected, routed.getNormalised(name, isClass), name);
+            if (expected != null) {
+              found++;
+            }
+          }
+        }
+      }
+    }
+    assertEquals(true, found > 1000);
+  }
+
+  @Test
+  public void testRouting() {
+    TermIndex index = build(true);
+    assertSame(DwcTerm.scientificName, index.getNormalised("https://rs.tdwg.org/dwc/terms/scientific_name", false));
+    assertSame(DwcTerm.Occurrence, index.getNormalised("http://rs.tdwg.org/dwc/terms/OCCURRENCE", true));
+    assertSame(GbifTerm.gbifID, index.getNormalised("gbif:gbif_id", false));
+    assertNull(index.getNormalised("http://rs.tdwg.org/dwc/terms/unknownThing", false));
+  }
+
+  @Test
+  public void testFamily() {
+    TermIndex.Builder builder = TermIndex.EMPTY.toBuilder();
+    builder.addFamily(BibTexTerm.NS, BibTexTerm::buildFromURI);
+    builder.addFamily(BibTexTerm.PREFIX + ":", BibTexTerm::buildFromPrefix);
+    TermIndex index = builder.build();
+
+    assertEquals(BibTexTerm.buildFromURI("http://bibtex.org/author"), index.family("http://bibtex.org/author").apply("http://bibtex.org/author"));
+    assertEquals(BibTexTerm.buildFromPrefix("bib:author"), index.family("bib:author").apply("bib:author"));
+    assertNull(index.family("https://bibtex.org/author"));
+    assertNull(index.family("bibauthor"));
+    assertNull(index.family("http://bibtex.org"));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the regular expression based term normalisation with the hand written scanner
+ * and the hash only variant used to probe the term index.
+ * Run with -prof gc to see the allocation rate of each variant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormaliseTermBenchmark {
+
+  private static final Pattern NON_ALPHA_NUM_PATTERN = Pattern.compile("[^a-zA-Z0-9#-]+");
+
+  @Param({"scientificname", "Scientific_Name", "dwc:catalogNumber", "http://rs.tdwg.org/dwc/terms/decimalLatitude"})
+  public String name;
+
+  @Benchmark
+  public String regex() {
+    return NON_ALPHA_NUM_PATTERN.matcher(name).replaceAll("")
+      .replaceFirst("^https?", "")
+      .toLowerCase(Locale.ROOT);
+  }
+
+  @Benchmark
+  public String scanner() {
+    return TermFactory.normaliseTerm(name);
+  }
+
+  @Benchmark
+  public int hashOnly() {
+    return TermNormaliser.hash(name);
+  }
+}
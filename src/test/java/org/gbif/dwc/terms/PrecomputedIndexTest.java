@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PrecomputedIndexTest {
+
+  private static TermIndex buildIndex() {
+    TermFactory factory = new TermFactory(false);
+    factory.listRegisteredTermEnums();
+    return factory.index();
+  }
+
+  private static byte[] write(TermIndex index) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrecomputedIndex.write(out, TermFactory.vocabularyFingerprint(), TermFactory.termFingerprint(),
+        TermFactory.vocabularyClasses(), index);
+    return out.toByteArray();
+  }
+
+  private static TermIndex read(byte[] data, long fingerprint) throws IOException {
+    return PrecomputedIndex.read(new ByteArrayInputStream(data), fingerprint, TermFactory.vocabularyClasses(), new HashMap<>());
+  }
+
+  private static List<String> entries(TermIndex index, boolean isClass) {
+    List<String> entries = new ArrayList<>();
+    index.table(isClass).forEach((k, t) -> entries.add(k + " " + t));
+    return entries;
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    TermIndex index = buildIndex();
+    TermIndex restored = read(write(index), TermFactory.vocabularyFingerprint());
+    assertNotNull(restored);
+
+    assertEquals(entries(index, false), entries(restored, false));
+    assertEquals(entries(index, true), entries(restored, true));
+    assertEquals(index.namespaces(), restored.namespaces());
+    assertEquals(index.collisions(), restored.collisions());
+    assertFalse(restored.collisions().isEmpty());
+
+    index.table(false).forEach((k, t) -> assertSame(t, restored.get(k, false)));
+    index.table(true).forEach((k, t) -> assertSame(t, restored.get(k, true)));
+    assertSame(DwcTerm.scientificName, restored.getNormalised("https://rs.tdwg.org/dwc/terms/scientific_name", false));
+    assertSame(BibTexTerm.CLASS_TERM, restored.get(BibTexTerm.CLASS_TERM.qualifiedName(), true));
+  }
+
+  @Test
+  public void testStale() throws IOException {
+    byte[] data = write(buildIndex());
+    assertNull(read(data, TermFactory.vocabularyFingerprint() + 1));
+
+    // another format
+    data[7]++;
+    assertNull(read(data, TermFactory.vocabularyFingerprint()));
+  }
+
+  @Test
+  public void testCorrupt() {
+    // displacements placing two keys into the same slot
+    HashMap<String, Term> entries = new HashMap<>();
+    entries.put("a", DwcTerm.scientificName);
+    entries.put("b", DwcTerm.catalogNumber);
+    entries.put("c", DwcTerm.eventDate);
+    assertNull(TermHashTable.restore(entries, 1, 2, new int[]{0}));
+    assertNull(TermHashTable.restore(entries, 1, 3, new int[]{0}));
+  }
+
+  @Test
+  public void testTermFingerprint() throws IOException {
+    assertEquals(Long.valueOf(TermFactory.termFingerprint()), PrecomputedIndex.termFingerprint(new ByteArrayInputStream(write(buildIndex()))));
+  }
+
+  /**
+   * The snapshot generated by the build matches the vocabularies, including all term names which are not checked at runtime.
+   */
+  @Test
+  public void testResource() throws IOException {
+    try (InputStream in = PrecomputedIndex.class.getResourceAsStream(PrecomputedIndex.RESOURCE)) {
+      if (in != null) {
+        assertEquals(Long.valueOf(TermFactory.termFingerprint()), PrecomputedIndex.termFingerprint(in));
+        assertNotNull(PrecomputedIndex.load(TermFactory.vocabularyFingerprint(), TermFactory.vocabularyClasses(), new HashMap<>()));
+      }
+    }
+  }
+}
@@ -19,6 +19,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Generic tests for all Term implementing classes.
@@ -53,6 +55,16 @@ public abstract class TermBaseTest<T extends Term> {
     }
   }
 
+  @Test
+  public void testCachedNames() {
+    for (T t : values) {
+      assertSame(t.qualifiedName(), t.qualifiedName());
+      assertSame(t.prefixedName(), t.prefixedName());
+      assertTrue(t.qualifiedName().startsWith(t.namespace().toString()), t.qualifiedName());
+      assertEquals(t.prefix() + ":" + t.simpleName(), t.prefixedName());
+    }
+  }
+
   /**
    * Test that iterates over all term values and uses the simple name alone as input to the factory and then verifies
    * the Term returned is the same as the original one.
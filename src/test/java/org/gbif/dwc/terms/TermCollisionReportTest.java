@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermCollisionReportTest {
+
+  @Test
+  public void testBuiltInCollisions() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    TermCollisionReport report = tf.collisionReport();
+    assertFalse(report.isEmpty());
+    for (TermCollisionReport.Collision c : report.getCollisions()) {
+      Term t = c.isClass() ? tf.findClassTerm(c.getKey()) : tf.findPropertyTerm(c.getKey());
+      assertSame(c.getKept(), t, c.toString());
+      assertFalse(tf.aliasesOf(c.getDropped()).contains(c.getKey()), c.toString());
+      assertTrue(report.getCollisions(c.getKey()).contains(c));
+      assertTrue(report.getCollisions(c.getSource()).contains(c));
+    }
+
+    // the same collisions with lazy vocabularies
+    TermFactory lazy = new TermFactory(true);
+    lazy.loadKnownTerms();
+    assertEquals(report.getCollisions(), lazy.collisionReport().getCollisions());
+  }
+
+  @Test
+  public void testAlias() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    int before = tf.collisionReport().size();
+    tf.registerAlias("scientificName", GbifTerm.canonicalName);
+    tf.registerAlias("latitudo", DwcTerm.decimalLatitude);
+
+    TermCollisionReport report = tf.collisionReport();
+    assertEquals(before + 1, report.size());
+    assertEquals(1, report.getCollisions("scientificName").size());
+    TermCollisionReport.Collision c = report.getCollisions("scientificName").get(0);
+    assertSame(DwcTerm.scientificName, c.getKept());
+    assertSame(GbifTerm.canonicalName, c.getDropped());
+    assertSame(GbifTerm.class, c.getSource());
+    assertFalse(c.isClass());
+    assertTrue(report.getCollisions("latitudo").isEmpty());
+  }
+}
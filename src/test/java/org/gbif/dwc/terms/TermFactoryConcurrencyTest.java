@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Stress tests hammering a single TermFactory from many threads.
+ */
+public class TermFactoryConcurrencyTest {
+
+  private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+  private static final int LOOKUPS_PER_THREAD = 20_000;
+
+  private final TermFactory TF = TermFactory.instance();
+
+  /**
+   * Many threads creating the same unknown terms at once must all get the very same instance.
+   */
+  @Test
+  public void testConcurrentUnknownTerms() throws Exception {
+    final int threads = 64;
+    final int names = 2_000;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService exec = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Term[]>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(exec.submit(() -> {
+          start.await();
+          Term[] found = new Term[names];
+          for (int n = 0; n < names; n++) {
+            found[n] = TF.findTerm("concurrentTerm" + n);
+          }
+          return found;
+        }));
+      }
+      start.countDown();
+
+      Term[] first = futures.get(0).get();
+      for (Future<Term[]> f : futures) {
+        Term[] found = f.get();
+        for (int n = 0; n < names; n++) {
+          assertSame(first[n], found[n]);
+        }
+      }
+      for (int n = 0; n < names; n++) {
+        assertSame(first[n], TF.findTerm("http://unknown.org/concurrentTerm" + n));
+      }
+    } finally {
+      exec.shutdownNow();
+    }
+  }
+
+  /**
+   * Reads known terms while new enums and terms get registered concurrently.
+   */
+  @Test
+  public void testReadsDuringRegistration() throws Exception {
+    ExecutorService exec = Executors.newFixedThreadPool(9);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(exec.submit(() -> {
+          for (int n = 0; n < 20_000; n++) {
+            assertEquals(DwcTerm.scientificName, TF.findTerm("dwc:scientificName"));
+            assertEquals(DwcTerm.catalogNumber, TF.findTerm("catalog_number"));
+          }
+        }));
+      }
+      futures.add(exec.submit(() -> {
+        for (int n = 0; n < 50; n++) {
+          TF.registerTerm(UnknownTerm.build("http://registered.org/term" + n));
+        }
+      }));
+      for (Future<?> f : futures) {
+        f.get();
+      }
+      assertEquals(UnknownTerm.build("http://registered.org/term7"), TF.findTerm("http://registered.org/term7"));
+    } finally {
+      exec.shutdownNow();
+    }
+  }
+
+  /**
+   * Reads of known terms from an increasing number of threads neither lose a lookup nor return a wrong term.
+   * The throughput is measured by {@link TermFactoryReadScalingBenchmark}.
+   */
+  @Test
+  public void testReadsUnderContention() throws Exception {
+    final String[] names = {"dwc:scientificName", "http://rs.tdwg.org/dwc/terms/decimalLatitude", "basisOfRecord",
+      "dcterms:modified", "gbif:Multimedia", "ScientificName", "catalog_number", "ac:caption"};
+    final Term[] expected = new Term[names.length];
+    for (int i = 0; i < names.length; i++) {
+      expected[i] = TF.findTerm(names[i]);
+    }
+
+    for (int threads : THREADS) {
+      ExecutorService exec = Executors.newFixedThreadPool(threads);
+      try {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<int[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+          tasks.add(() -> {
+            start.await();
+            // lookups done and wrong terms returned
+            int[] counts = new int[2];
+            for (int n = 0; n < LOOKUPS_PER_THREAD; n++) {
+              int idx = n % names.length;
+              if (TF.findTerm(names[idx]) != expected[idx]) {
+                counts[1]++;
+              }
+              counts[0]++;
+            }
+            return counts;
+          });
+        }
+        List<Future<int[]>> futures = new ArrayList<>();
+        for (Callable<int[]> task : tasks) {
+          futures.add(exec.submit(task));
+        }
+        start.countDown();
+        long lookups = 0;
+        for (Future<int[]> f : futures) {
+          int[] counts = f.get();
+          assertEquals(0, counts[1], threads + " threads");
+          lookups += counts[0];
+        }
+        assertEquals(threads * (long) LOOKUPS_PER_THREAD, lookups, threads + " threads");
+      } finally {
+        exec.shutdownNow();
+      }
+    }
+  }
+}
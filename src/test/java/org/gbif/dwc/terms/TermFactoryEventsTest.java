@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermFactoryEventsTest {
+
+  private static List<RecordedEvent> record(Runnable lookups) throws IOException {
+    Path file = Files.createTempFile("terms", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(SlowLookupEvent.class).withThreshold(Duration.ZERO);
+      recording.enable(UnknownTermEvent.class);
+      recording.start();
+      lookups.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static long count(List<RecordedEvent> events, String type) {
+    return events.stream().filter(e -> e.getEventType().getName().equals(type)).count();
+  }
+
+  @Test
+  public void testEvents() throws IOException {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    List<RecordedEvent> events = record(() -> {
+      tf.findTerm("dwc:scientificName");
+      tf.findTerm("scientific_name");
+      tf.findTerm("http://bibtex.org/author");
+      tf.findTerm("myJfrColumn");
+      tf.findClassTerm("MyJfrClass");
+    });
+
+    assertEquals(5, count(events, "org.gbif.dwc.terms.SlowLookup"));
+    assertEquals(2, count(events, "org.gbif.dwc.terms.UnknownTermCreated"));
+    for (RecordedEvent e : events) {
+      if (e.getEventType().getName().equals("org.gbif.dwc.terms.SlowLookup")) {
+        String name = e.getString("name");
+        String path = e.getString("path");
+        switch (name) {
+          case "dwc:scientificName":
+            assertEquals(SlowLookupEvent.EXACT, path);
+            assertEquals(DwcTerm.scientificName.qualifiedName(), e.getString("term"));
+            break;
+          case "scientific_name":
+            assertEquals(SlowLookupEvent.NORMALISED, path);
+            break;
+          case "http://bibtex.org/author":
+            assertEquals(SlowLookupEvent.BIBTEX, path);
+            break;
+          default:
+            assertEquals(SlowLookupEvent.UNKNOWN, path);
+        }
+      } else if (e.getEventType().getName().equals("org.gbif.dwc.terms.UnknownTermCreated")) {
+        assertTrue(e.getString("qualifiedName").startsWith("http://unknown.org/"));
+      }
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermFactoryLazyTest {
+
+  /**
+   * The namespaces and prefixes used to route names to vocabularies match the term classes.
+   */
+  @Test
+  public void testNamespaces() {
+    List<String> namespaces = new ArrayList<>();
+    for (String[] ns : TermFactory.vocabularyNamespaces()) {
+      namespaces.add(ns[0] + " " + ns[1]);
+    }
+    for (Class<? extends Enum<?>> cl : TermFactory.instance().listRegisteredTermEnums()) {
+      Term t = (Term) cl.getEnumConstants()[0];
+      assertTrue(namespaces.contains(t.namespace() + " " + t.prefix()), "Missing namespace of " + cl.getSimpleName());
+    }
+  }
+
+  @Test
+  public void testLoadOnDemand() {
+    TermFactory tf = new TermFactory(true);
+    assertTrue(tf.isLazy());
+    assertEquals(0, tf.loadedVocabularies());
+
+    assertEquals(DwcTerm.scientificName, tf.findTerm("scientificName"));
+    assertEquals(DwcTerm.catalogNumber, tf.findTerm("http://rs.tdwg.org/dwc/terms/catalogNumber"));
+    assertEquals(1, tf.loadedVocabularies());
+
+    assertEquals(GbifTerm.gbifID, tf.findTerm("gbif:gbifID"));
+    assertEquals(3, tf.loadedVocabularies());
+
+    assertEquals(ExifTerm.PixelXDimension, tf.findTerm("exif:PixelXDimension"));
+    int loaded = tf.loadedVocabularies();
+    assertTrue(loaded > 3 && loaded < TermFactory.vocabularyNamespaces().size());
+
+    assertEquals(UnknownTerm.class, tf.findTerm("lazyTestUnknown").getClass());
+    assertEquals(TermFactory.vocabularyNamespaces().size(), tf.loadedVocabularies());
+  }
+
+  /**
+   * A name no vocabulary knows registers all remaining vocabularies with a single index rebuild.
+   */
+  @Test
+  public void testColdMissRebuildsOnce() {
+    TermFactory tf = new TermFactory(true);
+    long epoch = tf.epoch();
+    assertEquals(UnknownTerm.class, tf.findTerm("lazyTestColdMiss").getClass());
+    assertEquals(TermFactory.vocabularyNamespaces().size(), tf.loadedVocabularies());
+    assertEquals(epoch + 1, tf.epoch());
+
+    tf = new TermFactory(true);
+    epoch = tf.epoch();
+    assertEquals(UnknownTerm.class, tf.findTerm("lazyTestColdMiss", true).getClass());
+    assertEquals(epoch + 1, tf.epoch());
+  }
+
+  /**
+   * A simple name loads vocabularies only up to the first one with a term of that name.
+   */
+  @Test
+  public void testLoadsUpToVocabularyOfName() {
+    TermFactory tf = new TermFactory(true);
+    long epoch = tf.epoch();
+    assertEquals(GbifTerm.gbifID, tf.findTerm("gbifID"));
+    assertEquals(epoch + 1, tf.epoch());
+    int loaded = tf.loadedVocabularies();
+    assertTrue(loaded > 1 && loaded < TermFactory.vocabularyNamespaces().size());
+
+    assertEquals(DwcTerm.scientificName, tf.findTerm("scientificName"));
+    assertEquals(loaded, tf.loadedVocabularies());
+    assertEquals(epoch + 1, tf.epoch());
+  }
+
+  /**
+   * Headers resolved while vocabularies are still being registered are cached.
+   */
+  @Test
+  public void testHeaderCache() {
+    String[] header = {"occurrenceID", "gbif:gbifID", "exif:PixelXDimension", "scientificName"};
+    TermFactory tf = new TermFactory(true);
+    Term[] terms = tf.resolveHeader(header);
+    assertTrue(tf.loadedVocabularies() < TermFactory.vocabularyNamespaces().size());
+    assertEquals(0, tf.headerCacheHits());
+    assertEquals(1, tf.headerCacheMisses());
+
+    assertArrayEquals(terms, tf.resolveHeader(header));
+    assertEquals(1, tf.headerCacheHits());
+    assertEquals(GbifTerm.gbifID, terms[1]);
+
+    // registering the remaining vocabularies keeps the cached header
+    assertEquals(UnknownTerm.class, tf.findTerm("lazyTestHeaderUnknown").getClass());
+    assertArrayEquals(terms, tf.resolveHeader(header));
+    assertEquals(2, tf.headerCacheHits());
+  }
+
+  private static List<String> names() {
+    List<String> names = new ArrayList<>();
+    for (Class<? extends Enum<?>> cl : TermFactory.instance().listRegisteredTermEnums()) {
+      for (Enum<?> e : cl.getEnumConstants()) {
+        Term t = (Term) e;
+        for (String name : new String[]{t.simpleName(), t.prefixedName(), t.qualifiedName()}) {
+          names.add(name);
+          names.add(name.toLowerCase());
+          names.add(name.replace("http://", "https://"));
+        }
+        if (t instanceof AlternativeNames) {
+          Collections.addAll(names, ((AlternativeNames) t).alternativeNames());
+        }
+      }
+    }
+    names.add("bib:author");
+    names.add("http://bibtex.org/title");
+    names.add("hallo");
+    return names;
+  }
+
+  private static String describe(Term t) {
+    return t == null ? null : t.getClass().getSimpleName() + " " + t.qualifiedName() + " " + t.isClass();
+  }
+
+  /**
+   * Lazily registered vocabularies give exactly the same results in any lookup order.
+   */
+  @Test
+  public void testSameAsEager() {
+    List<String> names = names();
+    Random rnd = new Random(7);
+    for (int round = 0; round < 10; round++) {
+      Collections.shuffle(names, rnd);
+      // unknown terms created before change later results, so both factories start from scratch
+      TermFactory eager = new TermFactory(false);
+      eager.loadKnownTerms();
+      TermFactory lazy = new TermFactory(true);
+      for (String name : names) {
+        int type = rnd.nextInt(3);
+        if (type == 0) {
+          assertEquals(describe(eager.findTerm(name)), describe(lazy.findTerm(name)), name);
+        } else {
+          assertEquals(describe(eager.findTerm(name, type == 1)), describe(lazy.findTerm(name, type == 1)), name);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEager() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    assertFalse(tf.isLazy());
+    assertEquals(TermFactory.vocabularyNamespaces().size(), tf.loadedVocabularies());
+  }
+}
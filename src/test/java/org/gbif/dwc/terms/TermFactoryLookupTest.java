@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermFactoryLookupTest {
+
+  private static final String[] NAMES = {"scientificName", "dwc:eventDate", "catalog_number", "Occurrence", "occurrence",
+      "https://rs.tdwg.org/dwc/terms/decimalLatitude", "ac:caption", "dwca:ID", "DCTERMS:LICENSE"};
+
+  @Test
+  public void testSameAsSnapshot() {
+    for (boolean lazy : new boolean[]{false, true}) {
+      TermFactory tf = new TermFactory(lazy);
+      tf.loadKnownTerms();
+      TermFactory factory = new TermFactory(false);
+      factory.loadKnownTerms();
+      TermIndexSnapshot snapshot = factory.snapshot();
+      for (String name : NAMES) {
+        assertSame(snapshot.get(name), tf.lookup(name), name);
+        assertSame(snapshot.get(name, false), tf.lookupProperty(name), name);
+        assertSame(snapshot.get(name, true), tf.lookupClass(name), name);
+      }
+    }
+  }
+
+  @Test
+  public void testNoSideEffects() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    long epoch = tf.epoch();
+    assertNull(tf.lookup("myLookupColumn"));
+    assertNull(tf.lookupClass("MyLookupClass"));
+    assertNull(tf.lookup("bib:title"));
+    assertNull(tf.lookup(""));
+    assertNull(tf.lookupProperty(null));
+    assertEquals(0, tf.unknownTermCount());
+    assertEquals(epoch, tf.epoch());
+    assertEquals(0, tf.metrics().getExactHits());
+
+    // unknown terms created before are ignored
+    assertTrue(tf.findTerm("myLookupColumn") instanceof UnknownTerm);
+    assertNull(tf.lookup("myLookupColumn"));
+  }
+
+  @Test
+  public void testOverlay() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    TermFactory overlay = tf.overlay();
+    overlay.registerAlias("latitudo", DwcTerm.decimalLatitude);
+    assertSame(DwcTerm.decimalLatitude, overlay.lookup("latitudo"));
+    assertSame(DwcTerm.decimalLatitude, overlay.lookupProperty("LATITUDO"));
+    assertSame(DwcTerm.scientificName, overlay.lookup("scientific_name"));
+    assertNull(tf.lookup("latitudo"));
+  }
+
+  @Test
+  public void testNoAllocation() {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+      return;
+    }
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    int found = 0;
+    for (int i = 0; i < 100_000; i++) {
+      found += tf.lookup(NAMES[i % NAMES.length]) != null ? 1 : 0;
+    }
+    long id = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(id);
+    for (int i = 0; i < 100_000; i++) {
+      found += tf.lookup(NAMES[i % NAMES.length]) != null ? 1 : 0;
+    }
+    long allocated = threads.getThreadAllocatedBytes(id) - before;
+    assertEquals(200_000, found);
+    // allow for the measurement itself, but not for a single allocation per lookup
+    assertTrue(allocated < 100_000, "Allocated " + allocated + " bytes");
+  }
+}
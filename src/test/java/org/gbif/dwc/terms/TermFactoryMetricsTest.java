@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermFactoryMetricsTest {
+
+  @Test
+  public void testCounters() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    tf.findTerm("dwc:scientificName");
+    tf.findTerm("scientific_name");
+    tf.findClassTerm("Occurrence");
+    tf.findTerm("http://bibtex.org/author");
+    tf.findTerm("myColumn");
+    tf.findTerm("myColumn");
+    tf.findTerm("my_column");
+    assertThrows(IllegalArgumentException.class, () -> tf.findTerm("Hallo Tim"));
+
+    TermFactoryMetrics m = tf.metrics();
+    // dwc:scientificName, Occurrence and the second myColumn
+    assertEquals(3, m.getExactHits());
+    // scientific_name and my_column
+    assertEquals(2, m.getNormalisedHits());
+    assertEquals(1, m.getClassHits());
+    assertEquals(4, m.getPropertyHits());
+    assertEquals(1, m.getBibTexTermCreations());
+    assertEquals(1, m.getUnknownTermCreations());
+    assertEquals(1, m.getRejectedNames());
+
+    Map<String, Long> top = m.getTopUnknownNames();
+    assertEquals(2, (long) top.get("myColumn"));
+    assertEquals(1, (long) top.get("my_column"));
+    assertEquals(1, (long) top.get("Hallo Tim"));
+    assertEquals("myColumn", top.keySet().iterator().next());
+  }
+
+  @Test
+  public void testHeaderCache() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    tf.resolveHeader("occurrenceID", "scientificName");
+    tf.resolveHeader("occurrenceID", "scientificName");
+    TermFactoryMetrics m = tf.metrics();
+    assertEquals(1, m.getHeaderCacheHits());
+    assertEquals(1, m.getHeaderCacheMisses());
+  }
+
+  @Test
+  public void testJmx() throws Exception {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    String name = TermFactory.MBEAN_NAME + ",name=test";
+    tf.registerMBean(name);
+    tf.findTerm("dwc:scientificName");
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName objectName = new ObjectName(name);
+    try {
+      assertEquals(1L, server.getAttribute(objectName, "ExactHits"));
+      assertEquals(1L, server.getAttribute(objectName, "PropertyHits"));
+      assertTrue(server.isRegistered(objectName));
+    } finally {
+      server.unregisterMBean(objectName);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermFactoryOverlayTest {
+
+  @Test
+  public void testSameAsParent() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    TermFactory overlay = tf.overlay();
+    for (String name : new String[]{"scientificName", "dwc:eventDate", "catalog_number", "Occurrence",
+        "https://rs.tdwg.org/dwc/terms/decimalLatitude", "bib:title", "ac:caption"}) {
+      assertSame(tf.findTerm(name), overlay.findTerm(name), name);
+      assertSame(tf.findClassTerm(name), overlay.findClassTerm(name), name);
+    }
+    assertEquals(tf.listRegisteredTermEnums(), overlay.listRegisteredTermEnums());
+  }
+
+  @Test
+  public void testAliases() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    TermFactory overlay = tf.overlay();
+    overlay.registerAlias("latitudo", DwcTerm.decimalLatitude);
+    // overlay names take precedence over the parent
+    overlay.registerAlias("scientificName", GbifTerm.canonicalName);
+
+    assertSame(DwcTerm.decimalLatitude, overlay.findTerm("latitudo"));
+    assertSame(DwcTerm.decimalLatitude, overlay.findTerm("LATITUDO"));
+    assertSame(GbifTerm.canonicalName, overlay.findTerm("scientificName"));
+    assertSame(DwcTerm.decimalLongitude, overlay.findTerm("decimalLongitude"));
+
+    // the parent is untouched
+    assertSame(DwcTerm.scientificName, tf.findTerm("scientificName"));
+    assertTrue(tf.findTerm("latitudo") instanceof UnknownTerm);
+    // another overlay has its own aliases
+    assertSame(DwcTerm.scientificName, tf.overlay().findTerm("scientificName"));
+  }
+
+  @Test
+  public void testAliasesKeepNormalisedParentNames() {
+    TermFactory parent = new TermFactory(false);
+    parent.loadKnownTerms();
+    TermFactory overlay = parent.overlay();
+    overlay.registerAlias("Scientific Name", GbifTerm.genusKey);
+    assertSame(GbifTerm.genusKey, overlay.findTerm("Scientific Name"));
+    // only the aliased spelling is overridden, other spellings resolve just as in the parent
+    assertSame(DwcTerm.scientificName, overlay.findTerm("scientific_name"));
+    assertSame(DwcTerm.scientificName, overlay.findTerm("SCIENTIFIC_NAME"));
+    assertSame(DwcTerm.scientificName, overlay.findTerm("scientificname"));
+
+    // normalised forms unknown to the parent are still added
+    overlay.registerAlias("Latitudo Decimalis", DwcTerm.decimalLatitude);
+    assertSame(DwcTerm.decimalLatitude, overlay.findTerm("latitudo_decimalis"));
+  }
+
+  @Test
+  public void testUnknownTerms() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    TermFactory overlay = tf.overlay();
+    Term t = overlay.findTerm("myOverlayColumn");
+    assertTrue(t instanceof UnknownTerm);
+    assertSame(t, overlay.findTerm("myOverlayColumn"));
+    assertSame(t, overlay.findTerm("my_overlay_column"));
+    assertEquals(1, overlay.unknownTermCount());
+    assertEquals(0, tf.unknownTermCount());
+
+    // unknown terms of the parent are shared
+    Term parentTerm = tf.findTerm("myParentColumn");
+    assertSame(parentTerm, overlay.findTerm("myParentColumn"));
+    // the parent creates its own unknown term, which is the same canonical instance
+    assertSame(t, tf.findTerm("myOverlayColumn"));
+    assertEquals(2, tf.unknownTermCount());
+  }
+
+  @Test
+  public void testParentChanges() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    TermFactory overlay = tf.overlay();
+    TermFactory nested = overlay.overlay();
+
+    Term[] header = nested.resolveHeader("occurrenceID", "myColumn");
+    assertTrue(header[1] instanceof UnknownTerm);
+
+    tf.registerAlias("myColumn", DwcTerm.catalogNumber);
+    assertSame(DwcTerm.catalogNumber, overlay.findTerm("myColumn"));
+    assertArrayEquals(new Term[]{DwcTerm.occurrenceID, DwcTerm.catalogNumber}, nested.resolveHeader("occurrenceID", "myColumn"));
+  }
+
+  @Test
+  public void testLazyParent() {
+    TermFactory tf = new TermFactory(true);
+    TermFactory overlay = tf.overlay();
+    assertTrue(overlay.isLazy());
+    assertSame(DwcTerm.scientificName, overlay.findTerm("dwc:scientificName"));
+    assertSame(AcTerm.caption, overlay.findTerm("caption"));
+    assertTrue(tf.loadedVocabularies() > 0);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookup throughput of known terms read by a single TermFactory with an increasing number of threads,
+ * looking up single names or a cached header row.
+ * Reads never take a lock, so the throughput should grow linearly with the threads up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermFactoryReadScalingBenchmark {
+
+  private static final String[] NAMES = {"dwc:scientificName", "http://rs.tdwg.org/dwc/terms/decimalLatitude",
+      "basisOfRecord", "dcterms:modified", "gbif:Multimedia", "ScientificName", "catalog_number", "ac:caption"};
+
+  private final TermFactory factory = TermFactory.instance();
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+
+    String name() {
+      next = (next + 1) % NAMES.length;
+      return NAMES[next];
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Term threads1(Cursor cursor) {
+    return factory.findTerm(cursor.name());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Term threads4(Cursor cursor) {
+    return factory.findTerm(cursor.name());
+  }
+
+  @Benchmark
+  @Threads(16)
+  public Term threads16(Cursor cursor) {
+    return factory.findTerm(cursor.name());
+  }
+
+  @Benchmark
+  @Threads(64)
+  public Term threads64(Cursor cursor) {
+    return factory.findTerm(cursor.name());
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Term[] header1() {
+    return factory.resolveHeader(NAMES);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public Term[] header16() {
+    return factory.resolveHeader(NAMES);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public Term[] header64() {
+    return factory.resolveHeader(NAMES);
+  }
+}
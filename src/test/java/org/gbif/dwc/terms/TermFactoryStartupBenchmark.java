@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold start of a term factory resolving a typical Darwin Core header, with all vocabularies registered upfront
+ * or lazily. Every measurement runs in a fresh JVM, so it includes loading the term classes.
+ * A header with a column no vocabulary knows shows the cost of a cold miss registering all remaining vocabularies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class TermFactoryStartupBenchmark {
+
+  private static final String[] HEADER = {"occurrenceID", "basisOfRecord", "scientificName", "dwc:eventDate",
+      "decimalLatitude", "decimalLongitude", "http://rs.tdwg.org/dwc/terms/countryCode", "dcterms:license", "gbifID"};
+
+  private static final String[] UNKNOWN_HEADER = {"occurrenceID", "scientificName", "myLocalRemarks", "decimalLatitude"};
+
+  @Param({"false", "true"})
+  public boolean lazy;
+
+  @Benchmark
+  public Term[] startup() {
+    return factory().resolveHeader(HEADER);
+  }
+
+  @Benchmark
+  public Term[] coldMiss() {
+    return factory().resolveHeader(UNKNOWN_HEADER);
+  }
+
+  private TermFactory factory() {
+    TermFactory tf = new TermFactory(lazy);
+    if (!lazy) {
+      // registers all vocabularies just as TermFactory.instance()
+      tf.listRegisteredTermEnums();
+    }
+    return tf;
+  }
+}
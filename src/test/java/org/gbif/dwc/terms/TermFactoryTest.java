@@ -15,9 +15,14 @@
  */
 package org.gbif.dwc.terms;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
@@ -27,16 +32,20 @@ import java.util.Collections;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TermFactoryTest {
@@ -222,6 +231,60 @@ public class TermFactoryTest {
     assertEquals(MixsTerm.annot, TF.findTerm("http://gensc.org/ns/mixs/annot_source"));
   }
 
+  @Test
+  public void testFindTermFromCharSequence() {
+    assertEquals(DwcTerm.scientificName, TF.findTerm(new StringBuilder("dwc:scientificName")));
+    assertEquals(DwcTerm.scientificName, TF.findTerm(CharBuffer.wrap("ScientificName")));
+    assertEquals(DwcTerm.Occurrence, TF.findTerm(new StringBuilder("http://rs.tdwg.org/dwc/terms/Occurrence")));
+    assertEquals(TF.findTerm("myOwnColumn"), TF.findTerm(new StringBuilder("myOwnColumn")));
+  }
+
+  @Test
+  public void testFindTermFromBytes() {
+    byte[] header = "id,dwc:scientificName,decimal_latitude,m\u00f6rder".getBytes(StandardCharsets.UTF_8);
+    assertEquals(DcTerm.identifier, TF.findTerm(header, 0, 2));
+    assertEquals(DwcTerm.scientificName, TF.findTerm(header, 3, 18));
+    assertEquals(DwcTerm.decimalLatitude, TF.findTerm(header, 22, 16));
+    assertEquals(TF.findTerm("m\u00f6rder"), TF.findTerm(header, 39, 7));
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(header.length);
+    direct.put(header).position(3).limit(21);
+    assertEquals(DwcTerm.scientificName, TF.findTerm(direct));
+    // the buffer position is not touched
+    assertEquals(3, direct.position());
+  }
+
+  @Test
+  public void testResolveHeader() {
+    TermFactory factory = TermFactory.instance();
+    String[] header = {"dwc:catalogNumber", "scientific_name", "", "http://rs.gbif.org/terms/1.0/gbifID", "headerTestColumn"};
+    long misses = factory.headerCacheMisses();
+    Term[] terms = factory.resolveHeader(header);
+    assertEquals(5, terms.length);
+    assertEquals(DwcTerm.catalogNumber, terms[0]);
+    assertEquals(DwcTerm.scientificName, terms[1]);
+    assertNull(terms[2]);
+    assertEquals(GbifTerm.gbifID, terms[3]);
+    assertEquals(factory.findTerm("headerTestColumn"), terms[4]);
+    assertEquals(misses + 1, factory.headerCacheMisses());
+
+    // same header given as other char sequences comes from the cache
+    long hits = factory.headerCacheHits();
+    List<CharSequence> again = new ArrayList<>();
+    for (String col : header) {
+      again.add(new StringBuilder(col));
+    }
+    Term[] cached = factory.resolveHeader(again);
+    assertArrayEquals(terms, cached);
+    assertEquals(hits + 1, factory.headerCacheHits());
+
+    // callers cannot modify the cached header
+    cached[0] = null;
+    assertEquals(DwcTerm.catalogNumber, factory.resolveHeader(header)[0]);
+
+    assertThrows(IllegalArgumentException.class, () -> factory.resolveHeader("dwc:catalogNumber", "Hallo Tim"));
+  }
+
   @Test
   public void addUnknownTerm() {
     TermFactory factory = TermFactory.instance();
@@ -241,6 +304,18 @@ public class TermFactoryTest {
     assertThrows(IllegalArgumentException.class, () -> factory.findTerm("Hallo Tim"));
   }
 
+  @Test
+  public void badTermOrNull() {
+    TermFactory factory = TermFactory.instance();
+    long rejected = factory.metrics().getRejectedNames();
+    assertNull(factory.findTermOrNull("Hallo Tim"));
+    assertNull(factory.findTermOrNull("http://bibtex.org/"));
+    assertNull(factory.findTermOrNull(""));
+    assertEquals(rejected + 2, factory.metrics().getRejectedNames());
+    assertEquals(DwcTerm.scientificName, factory.findTermOrNull("dwc:scientificName"));
+    assertEquals(factory.findTerm("myOrNullColumn"), factory.findTermOrNull("myOrNullColumn"));
+  }
+
   @Test
   public void removedGbifTerms() {
     assertEquals(DwcTerm.genericName, TF.findTerm("genericName"));
@@ -296,6 +371,27 @@ public class TermFactoryTest {
     assertNotEquals(t2, t3);
   }
 
+  /**
+   * An imported unknown property term must not hide a known class term of the same name.
+   */
+  @Test
+  public void testImportKeepsKnownClassTerms() throws IOException {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    assertEquals(DwcTerm.Occurrence, tf.findTerm("occurrence"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    UnknownTermFile.write(out, Arrays.asList("occurrence", "Occurrence_ID", "importedColumn"),
+        Arrays.asList(UnknownTerm.build("occurrence", false), UnknownTerm.build("Occurrence_ID", true),
+            UnknownTerm.build("importedColumn", false)));
+    assertEquals(1, tf.importUnknownTerms(new ByteArrayInputStream(out.toByteArray())));
+
+    assertEquals(DwcTerm.Occurrence, tf.findTerm("occurrence"));
+    assertEquals(DwcTerm.occurrenceID, tf.findTerm("Occurrence_ID"));
+    assertArrayEquals(new Term[]{DwcTerm.Occurrence, UnknownTerm.build("importedColumn", false)},
+        tf.resolveHeader("occurrence", "importedColumn"));
+  }
+
   /**
      * Not a real test, just a way of running many concurrent TermFactory.instance() calls to verify thread safety.
      */
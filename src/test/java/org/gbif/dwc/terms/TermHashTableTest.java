@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TermHashTableTest {
+
+  @Test
+  public void testEmpty() {
+    assertEquals(0, TermHashTable.EMPTY.size());
+    assertNull(TermHashTable.EMPTY.get(""));
+    assertNull(TermHashTable.EMPTY.get("scientificName"));
+  }
+
+  @Test
+  public void testAllTerms() {
+    Map<String, Term> entries = new LinkedHashMap<>();
+    for (DwcTerm t : DwcTerm.values()) {
+      entries.put(t.simpleName(), t);
+      entries.put(t.prefixedName(), t);
+      entries.put(t.qualifiedName(), t);
+    }
+    for (MixsTerm t : MixsTerm.values()) {
+      entries.put(t.qualifiedName(), t);
+    }
+    TermHashTable table = TermHashTable.build(entries);
+
+    assertEquals(entries.size(), table.size());
+    for (Map.Entry<String, Term> e : entries.entrySet()) {
+      assertEquals(e.getValue(), table.get(e.getKey()));
+    }
+    assertNull(table.get("scientificname"));
+    assertNull(table.get("dwc:ScientificName"));
+  }
+
+  /**
+   * "Aa" and "BB" share the same hash code and cannot be placed in different slots by any displacement.
+   */
+  @Test
+  public void testHashCollisions() {
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    Map<String, Term> entries = new LinkedHashMap<>();
+    entries.put("Aa", DwcTerm.scientificName);
+    entries.put("x", DwcTerm.kingdom);
+    entries.put("BB", DwcTerm.genus);
+    entries.put("AaBB", DcTerm.title);
+    entries.put("BBAa", DcTerm.creator);
+    entries.put("AaAa", DcTerm.source);
+    TermHashTable table = TermHashTable.build(entries);
+
+    for (Map.Entry<String, Term> e : entries.entrySet()) {
+      assertEquals(e.getValue(), table.get(e.getKey()));
+    }
+    assertNull(table.get("BBBB"));
+
+    // iteration keeps the insertion order
+    List<String> keys = new ArrayList<>();
+    table.forEach((k, v) -> keys.add(k));
+    assertEquals(new ArrayList<>(entries.keySet()), keys);
+  }
+}
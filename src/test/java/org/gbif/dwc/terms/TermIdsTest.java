@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermIdsTest {
+
+  @Test
+  public void testEnumTerms() {
+    int id = TermFactory.id(DwcTerm.scientificName);
+    assertSame(DwcTerm.scientificName, TermFactory.termOf(id));
+    // enumerations get consecutive identifiers in ordinal order
+    for (DwcTerm t : DwcTerm.values()) {
+      assertEquals(id - DwcTerm.scientificName.ordinal() + t.ordinal(), TermFactory.id(t));
+      assertSame(t, TermFactory.termOf(TermFactory.id(t)));
+    }
+    assertNotEquals(TermFactory.id(DwcTerm.scientificName), TermFactory.id(GbifTerm.canonicalName));
+    assertTrue(TermFactory.id(GbifTerm.canonicalName) < TermFactory.termIdCount());
+  }
+
+  @Test
+  public void testOtherTerms() {
+    Term unknown = UnknownTerm.build("http://example.org/terms/idTest");
+    int id = TermFactory.id(unknown);
+    assertEquals(id, TermFactory.id(UnknownTerm.build("http://example.org/terms/idTest")));
+    assertEquals(unknown, TermFactory.termOf(id));
+    assertNotEquals(id, TermFactory.id(UnknownTerm.build("http://example.org/terms/idTest2")));
+
+    int bibtex = TermFactory.id(BibTexTerm.CLASS_TERM);
+    assertSame(BibTexTerm.CLASS_TERM, TermFactory.termOf(bibtex));
+    assertEquals(bibtex, TermFactory.id(BibTexTerm.buildFromPrefix("bib:BibTeX")));
+  }
+
+  @Test
+  public void testDense() {
+    TermFactory.id(DcTerm.modified);
+    TermFactory.id(UnknownTerm.build("denseTest"));
+    int count = TermFactory.termIdCount();
+    Set<Term> terms = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      Term t = TermFactory.termOf(i);
+      if (t == null) {
+        // collected unknown term, its identifier is reused later
+        continue;
+      }
+      assertEquals(i, TermFactory.id(t));
+      assertTrue(terms.add(t), t.toString());
+    }
+    assertNull(TermFactory.termOf(-1));
+    assertNull(TermFactory.termOf(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testCollectedTermsReleaseIds() {
+    int count = TermFactory.termIdCount();
+    for (int i = 0; i < 20000; i++) {
+      assertTrue(TermIds.find(UnknownTerm.build("http://example.org/terms/collected" + i)) < 0);
+      TermFactory.id(UnknownTerm.build("http://example.org/terms/collected" + i));
+      if (i % 1000 == 0) {
+        System.gc();
+      }
+    }
+    // identifiers of collected terms were reused
+    assertTrue(TermFactory.termIdCount() - count < 20000, "identifiers were never reused");
+  }
+
+  @Test
+  public void testPinnedTermsKeepIds() {
+    TermSet set = TermSet.of(UnknownTerm.build("http://example.org/terms/pinnedInSet"));
+    TermRecord.Layout layout = TermRecord.Layout.of(UnknownTerm.build("http://example.org/terms/pinnedInLayout"));
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      for (int j = 0; j < 1000; j++) {
+        TermFactory.id(UnknownTerm.build("http://example.org/terms/pinnedFiller" + i + "_" + j));
+      }
+    }
+    assertTrue(set.contains(UnknownTerm.build("http://example.org/terms/pinnedInSet")));
+    assertEquals("pinnedInSet", set.iterator().next().simpleName());
+    assertEquals(0, layout.column(UnknownTerm.build("http://example.org/terms/pinnedInLayout")));
+  }
+
+  @Test
+  public void testConcurrent() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      // kept, as identifiers of collected terms are reused
+      List<Term> terms = new ArrayList<>();
+      for (int i = 0; i < 2000; i++) {
+        terms.add(UnknownTerm.build("concurrentIdTest" + i));
+      }
+      List<Future<int[]>> results = new ArrayList<>();
+      for (int n = 0; n < 8; n++) {
+        results.add(executor.submit(() -> {
+          int[] ids = new int[terms.size()];
+          for (int i = 0; i < ids.length; i++) {
+            ids[i] = TermFactory.id(terms.get(i));
+          }
+          return ids;
+        }));
+      }
+      int[] first = results.get(0).get();
+      for (Future<int[]> f : results) {
+        int[] ids = f.get();
+        for (int i = 0; i < ids.length; i++) {
+          assertEquals(first[i], ids[i]);
+          assertEquals("concurrentIdTest" + i, TermFactory.termOf(ids[i]).simpleName());
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
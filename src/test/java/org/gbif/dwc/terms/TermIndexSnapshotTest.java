@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermIndexSnapshotTest {
+
+  /**
+   * @return the term if known or null
+   */
+  private static Term known(Term t) {
+    return t instanceof UnknownTerm ? null : t;
+  }
+
+  @Test
+  public void testSameAsFactory() {
+    TermFactory factory = new TermFactory(false);
+    factory.loadKnownTerms();
+    TermIndexSnapshot snapshot = factory.snapshot();
+    for (String name : new String[]{"scientificName", "dwc:eventDate", "catalog_number", "Occurrence", "occurrence",
+        "https://rs.tdwg.org/dwc/terms/decimalLatitude", "ac:caption", "dwca:ID"}) {
+      // unknown terms created by the factory change how it resolves other names
+      TermFactory tf = new TermFactory(false);
+      tf.loadKnownTerms();
+      assertSame(tf.findTerm(name), snapshot.get(name), name);
+      assertSame(known(tf.findTerm(name, true)), snapshot.get(name, true), name);
+      assertSame(known(tf.findTerm(name, false)), snapshot.get(name, false), name);
+    }
+    assertNull(snapshot.get(""));
+    assertNull(snapshot.get(null, false));
+  }
+
+  @Test
+  public void testUnknown() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    long epoch = tf.epoch();
+    TermIndexSnapshot snapshot = tf.snapshot();
+    assertNull(snapshot.get("mySnapshotColumn"));
+    assertNull(snapshot.get("bib:title"));
+    assertEquals(0, tf.unknownTermCount());
+
+    // unknown terms never change the epoch
+    assertTrue(tf.findTerm("mySnapshotColumn") instanceof UnknownTerm);
+    assertEquals(epoch, tf.epoch());
+    assertNull(tf.snapshot().get("mySnapshotColumn"));
+  }
+
+  @Test
+  public void testRegistration() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    TermIndexSnapshot before = tf.snapshot();
+    assertEquals(tf.epoch(), before.epoch());
+
+    tf.registerAlias("latitudo", DwcTerm.decimalLatitude);
+    assertNotEquals(before.epoch(), tf.epoch());
+    assertNull(before.get("latitudo"));
+
+    TermIndexSnapshot after = tf.snapshot();
+    assertEquals(tf.epoch(), after.epoch());
+    assertSame(DwcTerm.decimalLatitude, after.get("latitudo"));
+  }
+
+  @Test
+  public void testOverlay() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    TermFactory overlay = tf.overlay();
+    overlay.registerAlias("latitudo", DwcTerm.decimalLatitude);
+    long epoch = overlay.epoch();
+    TermIndexSnapshot snapshot = overlay.snapshot();
+    assertEquals(epoch, snapshot.epoch());
+    assertSame(DwcTerm.decimalLatitude, snapshot.get("latitudo"));
+    assertSame(DwcTerm.scientificName, snapshot.get("scientific_name"));
+    assertNull(tf.snapshot().get("latitudo"));
+
+    // changes of the parent change the epoch of the overlay
+    tf.registerAlias("longitudo", DwcTerm.decimalLongitude);
+    assertNotEquals(epoch, overlay.epoch());
+    assertNull(snapshot.get("longitudo"));
+    assertSame(DwcTerm.decimalLongitude, overlay.snapshot().get("longitudo"));
+  }
+
+  @Test
+  public void testLazy() {
+    TermFactory tf = new TermFactory(true);
+    assertSame(AcTerm.caption, tf.snapshot().get("caption"));
+    assertEquals(TermFactory.vocabularyNamespaces().size(), tf.loadedVocabularies());
+  }
+}
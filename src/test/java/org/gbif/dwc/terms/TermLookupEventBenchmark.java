@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of the flight recorder events on term lookups, with no recording,
+ * a recording with the term events disabled and one with all term events enabled.
+ * The lookups stay below the slow lookup threshold, so the enabled recording only adds the cost of timing them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermLookupEventBenchmark {
+
+  @Param({"off", "disabled", "enabled"})
+  public String recording;
+
+  @Param({"scientificName", "Scientific_Name", "dwc:catalogNumber", "http://rs.tdwg.org/dwc/terms/decimalLatitude"})
+  public String name;
+
+  private TermFactory factory;
+  private Recording jfr;
+
+  @Setup
+  public void setup() {
+    factory = TermFactory.instance();
+    if (!"off".equals(recording)) {
+      jfr = new Recording();
+      if ("enabled".equals(recording)) {
+        jfr.enable(SlowLookupEvent.class);
+        jfr.enable(UnknownTermEvent.class);
+      } else {
+        jfr.disable(SlowLookupEvent.class);
+        jfr.disable(UnknownTermEvent.class);
+      }
+      jfr.start();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (jfr != null) {
+      jfr.close();
+    }
+  }
+
+  @Benchmark
+  public Term findTerm() {
+    return factory.findTerm(name);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import org.gbif.dwc.terms.jackson.TermSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Repeatedly serializes the same term, comparing the cached names of all terms with building them on every call
+ * as the default methods of {@link Term} do.
+ * Run with -prof gc to see that the cached variants and the json serialization do not allocate at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermNamesBenchmark {
+
+  @Param({"dwc:scientificName", "bib:journal", "unknown:myColumn"})
+  public String name;
+
+  private Term term;
+  private JsonGenerator json;
+  private final TermSerializer serializer = new TermSerializer();
+
+  @Setup
+  public void setup() throws IOException {
+    term = TermFactory.instance().findTerm(name);
+    json = new JsonFactory().createGenerator(OutputStream.nullOutputStream());
+    json.writeStartArray();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    json.close();
+  }
+
+  @Benchmark
+  public String qualifiedName() {
+    return term.qualifiedName();
+  }
+
+  @Benchmark
+  public String prefixedName() {
+    return term.prefixedName();
+  }
+
+  @Benchmark
+  public int hash() {
+    return term.hashCode();
+  }
+
+  @Benchmark
+  public String uncachedQualifiedName() {
+    return term.namespace() + term.simpleName();
+  }
+
+  @Benchmark
+  public String uncachedPrefixedName() {
+    return term.prefix() + ":" + term.simpleName();
+  }
+
+  @Benchmark
+  public void serialize() throws IOException {
+    serializer.serialize(term, json, null);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermNormaliserTest {
+
+  private static final Pattern NON_ALPHA_NUM_PATTERN = Pattern.compile("[^a-zA-Z0-9#-]+");
+  private static final String CHARS = "httpsHTTPS:/#-_. aZ09\u00e9\u00df\t\"";
+
+  /**
+   * The regular expression based implementation the scanner replaces.
+   */
+  private static String regexNormalise(String term) {
+    return NON_ALPHA_NUM_PATTERN.matcher(term).replaceAll("")
+      .replaceFirst("^https?", "")
+      .toLowerCase(Locale.ROOT);
+  }
+
+  private static void assertNormalised(String term) {
+    String expected = regexNormalise(term);
+    assertEquals(expected, TermNormaliser.normalise(term), "Bad normalisation of " + term);
+    assertEquals(expected.hashCode(), TermNormaliser.hash(term), "Bad hash of " + term);
+    assertTrue(TermNormaliser.equals(term, expected), "Not equal to " + term);
+    assertFalse(TermNormaliser.equals(term, expected + "x"));
+    if (!expected.isEmpty()) {
+      assertFalse(TermNormaliser.equals(term, expected.substring(1)));
+    }
+  }
+
+  @Test
+  public void testNormalise() {
+    assertEquals("scientificname", TermFactory.normaliseTerm("scientificName"));
+    assertEquals("scientificname", TermFactory.normaliseTerm("scientific_name"));
+    assertEquals("dwcscientificname", TermFactory.normaliseTerm("dwc:scientificName"));
+    assertEquals("rstdwgorgdwctermsscientificname", TermFactory.normaliseTerm("http://rs.tdwg.org/dwc/terms/scientificName"));
+    assertEquals("rstdwgorgdwctermsscientificname", TermFactory.normaliseTerm("https://rs.tdwg.org/dwc/terms/scientificName"));
+    assertEquals("httprstdwgorg", TermFactory.normaliseTerm("HTTP://rs.tdwg.org"));
+    assertEquals("", TermFactory.normaliseTerm("http"));
+    assertEquals("", TermFactory.normaliseTerm("https"));
+    assertEquals("s", TermFactory.normaliseTerm("httpss"));
+    assertEquals("htt", TermFactory.normaliseTerm("htt"));
+    assertEquals("#me", TermFactory.normaliseTerm("http://#me"));
+
+    for (String t : new String[]{"", " ", "h", "ht_tp", "h.t.t.p.s.x", "Http", "a-b#c", "\u00fcnknown", "catalog number"}) {
+      assertNormalised(t);
+    }
+  }
+
+  /**
+   * Already normalised names are returned as they are.
+   */
+  @Test
+  public void testNoCopy() {
+    String name = "scientificname";
+    assertSame(name, TermNormaliser.normalise(name));
+  }
+
+  @Test
+  public void testKnownTerms() {
+    for (Class<? extends Enum<?>> cl : TermFactory.instance().listRegisteredTermEnums()) {
+      for (Enum<?> e : cl.getEnumConstants()) {
+        Term t = (Term) e;
+        assertNormalised(t.simpleName());
+        assertNormalised(t.prefixedName());
+        assertNormalised(t.qualifiedName());
+      }
+    }
+  }
+
+  @Test
+  public void testRandom() {
+    Random rnd = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      StringBuilder sb = new StringBuilder();
+      int len = rnd.nextInt(12);
+      for (int j = 0; j < len; j++) {
+        sb.append(CHARS.charAt(rnd.nextInt(CHARS.length())));
+      }
+      assertNormalised(sb.toString());
+    }
+  }
+}
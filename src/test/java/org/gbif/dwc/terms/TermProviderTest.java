@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.net.URI;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermProviderTest {
+
+  enum ExampleTerm implements Term, AlternativeNames {
+    Widget(true),
+    widgetName("gadgetName"),
+    scientificName;
+
+    private static final String PREFIX = "ex";
+    private static final URI NS_URI = URI.create("http://example.org/terms/");
+
+    private final boolean isClass;
+    private final String[] alternatives;
+
+    ExampleTerm(String... alternatives) {
+      this(false, alternatives);
+    }
+
+    ExampleTerm(boolean isClass, String... alternatives) {
+      this.isClass = isClass;
+      this.alternatives = alternatives;
+    }
+
+    @Override
+    public String simpleName() {
+      return name();
+    }
+
+    @Override
+    public String[] alternativeNames() {
+      return alternatives;
+    }
+
+    @Override
+    public String prefix() {
+      return PREFIX;
+    }
+
+    @Override
+    public URI namespace() {
+      return NS_URI;
+    }
+
+    @Override
+    public boolean isClass() {
+      return isClass;
+    }
+  }
+
+  public static class ExampleProvider implements TermProvider {
+    @Override
+    public List<TermEnum> termEnums() {
+      return List.of(TermEnum.of(ExampleTerm.class, "example"));
+    }
+  }
+
+  private static TermFactory factory(boolean lazy) {
+    TermFactory tf = new TermFactory(lazy, new ExampleProvider().termEnums());
+    tf.loadKnownTerms();
+    return tf;
+  }
+
+  private static void assertProvided(TermFactory tf) {
+    assertEquals(ExampleTerm.widgetName, tf.findTerm("widgetName"));
+    assertEquals(ExampleTerm.widgetName, tf.findTerm("ex:gadgetName"));
+    assertEquals(ExampleTerm.widgetName, tf.findTerm("example:widget_name"));
+    assertEquals(ExampleTerm.widgetName, tf.findTerm("http://example.org/terms/gadgetName"));
+    assertEquals(ExampleTerm.Widget, tf.findClassTerm("Widget"));
+    assertEquals(ExampleTerm.scientificName, tf.findTerm("ex:scientificName"));
+    // built-in terms take precedence
+    assertEquals(DwcTerm.scientificName, tf.findTerm("scientificName"));
+    assertTrue(tf.listRegisteredTermEnums().contains(ExampleTerm.class));
+  }
+
+  @Test
+  public void testProvider() {
+    assertProvided(factory(false));
+    assertProvided(factory(true));
+  }
+
+  /**
+   * Providers are registered after all built-in vocabularies, but for the rest just as registering them at runtime.
+   */
+  @Test
+  public void testSameAsRegistered() {
+    TermFactory provided = factory(false);
+    TermFactory registered = new TermFactory(false);
+    registered.loadKnownTerms();
+    registered.registerTermEnum(ExampleTerm.class, "example");
+
+    assertEquals(registered.index().table(false).size(), provided.index().table(false).size());
+    assertEquals(registered.index().table(true).size(), provided.index().table(true).size());
+    registered.index().table(false).forEach((k, t) -> assertEquals(t, provided.index().get(k, false), k));
+    registered.index().table(true).forEach((k, t) -> assertEquals(t, provided.index().get(k, true), k));
+  }
+
+  @Test
+  public void testRegisterTwice() {
+    TermFactory tf = factory(false);
+    int size = tf.index().table(false).size();
+    tf.registerTermEnum(ExampleTerm.class);
+    tf.registerQualifiedTermEnum(DwcTerm.class);
+    assertEquals(size, tf.index().table(false).size());
+    assertProvided(tf);
+  }
+}
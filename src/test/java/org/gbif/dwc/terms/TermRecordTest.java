@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermRecordTest {
+
+  private static final TermRecord.Layout LAYOUT = TermRecord.Layout.of(DwcTerm.occurrenceID, DwcTerm.scientificName,
+      UnknownTerm.build("http://example.org/terms/colour"), DcTerm.modified);
+
+  @Test
+  public void testLayout() {
+    assertEquals(4, LAYOUT.size());
+    assertEquals(1, LAYOUT.column(DwcTerm.scientificName));
+    assertEquals(2, LAYOUT.column(UnknownTerm.build("http://example.org/terms/colour")));
+    assertEquals(-1, LAYOUT.column(DwcTerm.eventDate));
+    assertEquals(-1, LAYOUT.column(UnknownTerm.build("http://example.org/terms/notAColumn")));
+    assertSame(DcTerm.modified, LAYOUT.term(3));
+    assertEquals(List.of(DwcTerm.occurrenceID, DwcTerm.scientificName, UnknownTerm.build("http://example.org/terms/colour"),
+        DcTerm.modified), LAYOUT.terms());
+    assertThrows(IllegalArgumentException.class, () -> TermRecord.Layout.of(DwcTerm.occurrenceID, DwcTerm.occurrenceID));
+    assertThrows(IllegalArgumentException.class, () -> LAYOUT.wrap("a", "b"));
+  }
+
+  @Test
+  public void testValues() {
+    TermRecord r = LAYOUT.newRecord();
+    assertNull(r.get(DwcTerm.scientificName));
+    r.set(DwcTerm.scientificName, "Abies alba");
+    r.set(2, "red");
+    assertEquals("Abies alba", r.get(DwcTerm.scientificName));
+    assertEquals("Abies alba", r.get(1));
+    assertEquals("red", r.get(UnknownTerm.build("http://example.org/terms/colour")));
+    assertNull(r.get(DwcTerm.eventDate));
+    assertThrows(IllegalArgumentException.class, () -> r.set(DwcTerm.eventDate, "2020"));
+
+    r.clear();
+    assertNull(r.get(DwcTerm.scientificName));
+    assertTrue(r.asMap().isEmpty());
+  }
+
+  @Test
+  public void testMapView() {
+    String[] row = {"occ1", "Abies alba", null, "2020-01-01"};
+    TermRecord r = LAYOUT.wrap(row);
+    Map<Term, String> map = r.asMap();
+    Map<Term, String> expected = new HashMap<>();
+    expected.put(DwcTerm.occurrenceID, "occ1");
+    expected.put(DwcTerm.scientificName, "Abies alba");
+    expected.put(DcTerm.modified, "2020-01-01");
+    assertEquals(expected, map);
+    assertEquals(expected.hashCode(), map.hashCode());
+    assertEquals(3, map.size());
+    assertTrue(map.containsKey(DwcTerm.scientificName));
+    assertFalse(map.containsKey(UnknownTerm.build("http://example.org/terms/colour")));
+    assertFalse(map.containsKey("scientificName"));
+
+    // writes go through to the record
+    assertEquals("Abies alba", map.put(DwcTerm.scientificName, "Abies"));
+    assertEquals("Abies", row[1]);
+    assertEquals("2020-01-01", map.remove(DcTerm.modified));
+    assertNull(row[3]);
+    assertThrows(IllegalArgumentException.class, () -> map.put(DwcTerm.eventDate, "2020"));
+
+    Iterator<Map.Entry<Term, String>> iter = map.entrySet().iterator();
+    Map.Entry<Term, String> e = iter.next();
+    assertSame(DwcTerm.occurrenceID, e.getKey());
+    e.setValue("occ2");
+    assertEquals("occ2", row[0]);
+    iter.remove();
+    assertNull(row[0]);
+    assertEquals(1, map.size());
+
+    assertEquals(LAYOUT.wrap(null, "Abies", null, null), r);
+  }
+
+  @Test
+  public void testReadsAssignNoIds() {
+    TermRecord r = LAYOUT.newRecord();
+    int count = TermFactory.termIdCount();
+    for (int i = 0; i < 100; i++) {
+      Term t = UnknownTerm.build("http://example.org/terms/absent" + i);
+      assertNull(r.get(t));
+      assertFalse(LAYOUT.contains(t));
+      assertFalse(r.asMap().containsKey(t));
+    }
+    assertEquals(count, TermFactory.termIdCount());
+  }
+}
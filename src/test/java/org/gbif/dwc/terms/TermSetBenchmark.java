@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tests every dwc and gbif term for membership in the taxonomic and vocabulary backed terms,
+ * comparing a {@link TermSet} with searching the arrays and lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermSetBenchmark {
+
+  private final Term[] terms = TermSet.allOf(DwcTerm.class).union(TermSet.allOf(GbifTerm.class)).toArray(new Term[0]);
+  private final List<DwcTerm> taxonomicList = Arrays.asList(DwcTerm.TAXONOMIC_TERMS);
+  private final List<Term> vocabularyList = Terms.getVocabularyBackedTerms();
+
+  @Benchmark
+  public int taxonomicArray() {
+    int n = 0;
+    for (Term t : terms) {
+      if (taxonomicList.contains(t)) {
+        n++;
+      }
+    }
+    return n;
+  }
+
+  @Benchmark
+  public int taxonomicSet() {
+    int n = 0;
+    for (Term t : terms) {
+      if (DwcTerm.TAXONOMIC_TERM_SET.contains(t)) {
+        n++;
+      }
+    }
+    return n;
+  }
+
+  @Benchmark
+  public int vocabularyList() {
+    int n = 0;
+    for (Term t : terms) {
+      if (vocabularyList.contains(t)) {
+        n++;
+      }
+    }
+    return n;
+  }
+
+  @Benchmark
+  public int vocabularySet() {
+    TermSet set = Terms.getVocabularyBackedTermSet();
+    int n = 0;
+    for (Term t : terms) {
+      if (set.contains(t)) {
+        n++;
+      }
+    }
+    return n;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermSetTest {
+
+  @Test
+  public void testContains() {
+    Term unknown = UnknownTerm.build("http://example.org/terms/setTest");
+    TermSet set = TermSet.of(DwcTerm.scientificName, GbifTerm.canonicalName, unknown, BibTexTerm.CLASS_TERM);
+    assertEquals(4, set.size());
+    assertTrue(set.contains(DwcTerm.scientificName));
+    assertTrue(set.contains(GbifTerm.canonicalName));
+    assertTrue(set.contains(unknown));
+    assertTrue(set.contains(UnknownTerm.build("http://example.org/terms/setTest")));
+    // equal terms share one identifier
+    assertTrue(set.contains(BibTexTerm.buildFromPrefix("bib:BibTeX")));
+    assertFalse(set.contains(DwcTerm.genus));
+    assertFalse(set.contains(AcTerm.accessURI));
+    assertFalse(set.contains("dwc:scientificName"));
+    assertFalse(set.contains(null));
+
+    // terms never seen are not given an identifier
+    int count = TermFactory.termIdCount();
+    assertFalse(set.contains(UnknownTerm.build("http://example.org/terms/setTestNotContained")));
+    assertEquals(count, TermFactory.termIdCount());
+  }
+
+  @Test
+  public void testEmpty() {
+    assertTrue(TermSet.empty().isEmpty());
+    assertSame(TermSet.empty(), TermSet.of());
+    assertSame(TermSet.empty(), TermSet.of(DwcTerm.genus).difference(TermSet.of(DwcTerm.genus)));
+    assertFalse(TermSet.empty().contains(DwcTerm.genus));
+    assertFalse(TermSet.empty().iterator().hasNext());
+    assertThrows(NoSuchElementException.class, () -> TermSet.empty().iterator().next());
+  }
+
+  @Test
+  public void testSetOperations() {
+    TermSet a = TermSet.of(DwcTerm.kingdom, DwcTerm.genus, GbifTerm.genusKey);
+    TermSet b = TermSet.of(DwcTerm.genus, GbifTerm.genusKey, DcTerm.modified);
+
+    assertEquals(Set.of(DwcTerm.kingdom, DwcTerm.genus, GbifTerm.genusKey, DcTerm.modified), a.union(b));
+    assertEquals(Set.of(DwcTerm.genus, GbifTerm.genusKey), a.intersection(b));
+    assertEquals(Set.of(DwcTerm.kingdom), a.difference(b));
+    assertEquals(Set.of(DcTerm.modified), b.difference(a));
+    assertEquals(a.union(b), b.union(a));
+    assertEquals(a.intersection(b), b.intersection(a));
+
+    assertTrue(a.union(b).containsAll(a));
+    assertTrue(a.containsAll(a.intersection(b)));
+    assertFalse(a.containsAll(b));
+    assertTrue(a.containsAll(List.of(DwcTerm.genus, DwcTerm.kingdom)));
+
+    // immutable
+    assertThrows(UnsupportedOperationException.class, () -> a.add(DwcTerm.family));
+    assertThrows(UnsupportedOperationException.class, () -> a.remove(DwcTerm.genus));
+    assertThrows(UnsupportedOperationException.class, a::clear);
+  }
+
+  @Test
+  public void testEnumSetEquivalent() {
+    TermSet all = TermSet.allOf(DwcTerm.class);
+    assertEquals(DwcTerm.values().length, all.size());
+    assertEquals(EnumSet.allOf(DwcTerm.class), all);
+    assertEquals(all, EnumSet.allOf(DwcTerm.class));
+    assertEquals(EnumSet.allOf(DwcTerm.class).hashCode(), all.hashCode());
+    // ordinal order just as EnumSet
+    assertEquals(new ArrayList<>(EnumSet.allOf(DwcTerm.class)), new ArrayList<>(all));
+
+    TermSet mixed = all.union(TermSet.allOf(GbifTerm.class));
+    assertEquals(DwcTerm.values().length + GbifTerm.values().length, mixed.size());
+    Set<Term> expected = new HashSet<>(Arrays.asList(DwcTerm.values()));
+    expected.addAll(Arrays.asList(GbifTerm.values()));
+    assertEquals(expected, mixed);
+    assertEquals(TermSet.allOf(GbifTerm.class), mixed.difference(all));
+  }
+
+  @Test
+  public void testIteration() {
+    TermSet set = TermSet.allOf(DwcTerm.class).union(TermSet.allOf(AcTerm.class));
+    List<Term> iterated = new ArrayList<>();
+    for (Iterator<Term> iter = set.iterator(); iter.hasNext(); ) {
+      iterated.add(iter.next());
+    }
+    List<Term> forEach = new ArrayList<>();
+    set.forEach(forEach::add);
+    assertEquals(set.size(), iterated.size());
+    assertEquals(iterated, forEach);
+    for (Term t : iterated) {
+      assertTrue(set.contains(t));
+    }
+    assertEquals(set, TermSet.copyOf(iterated));
+    assertSame(set, TermSet.copyOf(set));
+  }
+
+  @Test
+  public void testConstants() {
+    assertEquals(Set.of(DwcTerm.TAXONOMIC_TERMS), DwcTerm.TAXONOMIC_TERM_SET);
+    assertEquals(Set.of(DwcTerm.HIGHER_RANKS), DwcTerm.HIGHER_RANK_SET);
+    assertEquals(Set.of(GbifTerm.TAXONOMIC_TERMS), GbifTerm.TAXONOMIC_TERM_SET);
+    assertEquals(new HashSet<>(Terms.getVocabularyBackedTerms()), Terms.getVocabularyBackedTermSet());
+    for (DwcTerm t : DwcTerm.values()) {
+      assertEquals(Arrays.asList(DwcTerm.TAXONOMIC_TERMS).contains(t), DwcTerm.TAXONOMIC_TERM_SET.contains(t));
+      assertEquals(Arrays.asList(DwcTerm.HIGHER_RANKS).contains(t), DwcTerm.HIGHER_RANK_SET.contains(t));
+    }
+  }
+}
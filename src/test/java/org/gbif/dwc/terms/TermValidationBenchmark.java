@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validates column names of which every other one is not known, once with findTerm which registers
+ * a new unknown term for every unknown name, and once with the side effect free lookup.
+ * Run with -prof gc to see the allocation rate and with more threads to see the contention on the unknown terms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TermValidationBenchmark {
+
+  private static final String[] KNOWN = {"occurrenceID", "basisOfRecord", "scientific_name", "dwc:eventDate",
+      "decimalLatitude", "http://rs.tdwg.org/dwc/terms/countryCode", "dcterms:license", "Occurrence"};
+
+  private TermFactory factory;
+
+  @State(Scope.Thread)
+  public static class Names {
+    private int counter;
+
+    String next() {
+      int i = counter++;
+      // unknown names are always new, as in a stream of datasets from many publishers
+      return (i & 1) == 0 ? KNOWN[(i >>> 1) % KNOWN.length] : "unknownColumn" + Thread.currentThread().getId() + "x" + i;
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    factory = new TermFactory(false);
+    factory.loadKnownTerms();
+  }
+
+  @Benchmark
+  public Term findTerm(Names names) {
+    return factory.findTerm(names.next());
+  }
+
+  @Benchmark
+  public Term lookup(Names names) {
+    return factory.lookup(names.next());
+  }
+}
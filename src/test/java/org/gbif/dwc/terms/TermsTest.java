@@ -45,6 +45,20 @@ public class TermsTest {
     assertEquals("The AcTerm title", Terms.getValueOfFirst(record, AcTerm.caption, DcTerm.title));
   }
 
+  @Test
+  public void testGetValueOfFirstRecord(){
+    TermRecord.Layout layout = TermRecord.Layout.of(DcTerm.title, AcTerm.caption, DcElement.creator);
+    TermRecord record = layout.wrap("The DcTerm title", "", "Steven Seagal");
+    assertEquals("The DcTerm title", Terms.getValueOfFirst(record, AcTerm.caption, DcTerm.title));
+    assertEquals("The DcTerm title", Terms.getValueOfFirst(record, DwcTerm.scientificName, DcTerm.title));
+
+    record = layout.newRecord();
+    record.set(AcTerm.caption, "The AcTerm title");
+    record.set(DcElement.creator, "NULL");
+    assertEquals("The AcTerm title", Terms.getValueOfFirst(record, AcTerm.caption, DcTerm.title));
+    assertEquals(null, Terms.getValueOfFirst(record, DcElement.creator, DcTerm.title));
+  }
+
   @Test
   public void testIsTermValueBlank(){
     assertTrue(Terms.isTermValueBlank("\\N"));
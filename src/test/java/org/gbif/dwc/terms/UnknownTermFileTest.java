@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UnknownTermFileTest {
+
+  private static final String[] NAMES = {"myColumn", "foo:bar", "http://example.org/terms/colour", "sample_count", "bib:journalTitle"};
+
+  private static byte[] export(TermFactory tf) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    tf.exportUnknownTerms(out);
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testRoundtrip() throws IOException {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    for (String name : NAMES) {
+      tf.findTerm(name);
+    }
+    Term cls = tf.findClassTerm("MyRecord");
+
+    TermFactory restored = new TermFactory(false);
+    restored.loadKnownTerms();
+    assertEquals(NAMES.length + 1, restored.importUnknownTerms(new ByteArrayInputStream(export(tf))));
+    assertEquals(tf.unknownTermCount(), restored.unknownTermCount());
+    for (String name : NAMES) {
+      Term t = restored.findTerm(name);
+      Term orig = tf.findTerm(name);
+      assertSame(orig, t, name);
+      assertEquals(orig, t, name);
+      assertEquals(orig.getClass(), t.getClass(), name);
+      assertEquals(orig.simpleName(), t.simpleName(), name);
+      assertEquals(orig.prefixedName(), t.prefixedName(), name);
+      assertSame(t, restored.findTerm(t.qualifiedName()), name);
+    }
+    Term c = restored.findClassTerm("MyRecord");
+    assertEquals(cls, c);
+    assertTrue(c.isClass());
+    // nothing was created again
+    assertEquals(0, restored.metrics().getUnknownTermCreations());
+    assertEquals(0, restored.metrics().getBibTexTermCreations());
+
+    // other names resolve just as they did before
+    for (String name : NAMES) {
+      assertEquals(tf.findTerm(name.toUpperCase()), restored.findTerm(name.toUpperCase()), name);
+    }
+  }
+
+  @Test
+  public void testSkipTakenNames() throws IOException {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    tf.findTerm("latitudo");
+    tf.findTerm("myColumn");
+
+    TermFactory restored = new TermFactory(false);
+    restored.loadKnownTerms();
+    restored.registerAlias("latitudo", DwcTerm.decimalLatitude);
+    Term existing = restored.findTerm("myColumn");
+    assertEquals(0, restored.importUnknownTerms(new ByteArrayInputStream(export(tf))));
+    assertSame(DwcTerm.decimalLatitude, restored.findTerm("latitudo"));
+    assertSame(existing, restored.findTerm("myColumn"));
+  }
+
+  @Test
+  public void testOverlay() throws IOException {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    tf.findTerm("myColumn");
+    TermFactory overlay = tf.overlay();
+    overlay.findTerm("otherColumn");
+
+    // only the own unknown terms are exported
+    TermFactory restored = new TermFactory(false);
+    restored.loadKnownTerms();
+    assertEquals(1, restored.importUnknownTerms(new ByteArrayInputStream(export(overlay))));
+    assertEquals(1, restored.unknownTermCount());
+    assertEquals(overlay.findTerm("otherColumn"), restored.findTerm("otherColumn"));
+  }
+
+  @Test
+  public void testInvalid() {
+    TermFactory tf = new TermFactory(false);
+    tf.loadKnownTerms();
+    assertThrows(IOException.class, () -> tf.importUnknownTerms(new ByteArrayInputStream(new byte[]{1, 2, 3})));
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UnknownTermParserTest {
+
+  private static final String URL = "http://unknown.org/";
+  private static final Pattern PREFIX_PATTERN = Pattern.compile("^([a-zA-Z0-9]+):([a-zA-Z0-9._+# -]+)$");
+
+  /**
+   * The regular expression and URI based implementation UnknownTerm.build used before.
+   */
+  private static UnknownTerm reference(String name, boolean isClass) {
+    Matcher m = PREFIX_PATTERN.matcher(name);
+    if (m.find()) {
+      if (m.group(1).equalsIgnoreCase("unknown")) {
+        return new UnknownTerm(URI.create(URL + m.group(2)), "unknown", m.group(2), isClass);
+      }
+      return new UnknownTerm(URI.create(URL + m.group(1) + "/" + m.group(2)), m.group(1), m.group(2), isClass);
+    }
+    URI uri = URI.create(name);
+    if (uri.getAuthority() != null) {
+      return new UnknownTerm(uri, isClass);
+    } else if (uri.getScheme() != null) {
+      String scheme = uri.getScheme().equalsIgnoreCase("unknown") ? "" : uri.getScheme() + "/";
+      return reference(URL + scheme + uri.getSchemeSpecificPart(), isClass);
+    } else {
+      if (!name.contains("/") && !name.contains("#")) {
+        name = URLEncoder.encode(name, StandardCharsets.UTF_8);
+      }
+      return reference(URL + name, isClass);
+    }
+  }
+
+  private static String describe(Term t) {
+    return t.qualifiedName() + " " + t.simpleName() + " " + t.prefix() + " " + t.isClass();
+  }
+
+  private static void assertSameAsReference(String name) {
+    for (boolean isClass : new boolean[]{false, true}) {
+      String expected;
+      try {
+        expected = describe(reference(name, isClass));
+      } catch (IllegalArgumentException e) {
+        expected = null;
+      }
+      UnknownTermParser.Result r = UnknownTermParser.parse(name, isClass);
+      assertEquals(expected, r.isValid() ? describe(r.getTerm()) : null, name);
+    }
+  }
+
+  @Test
+  public void testKinds() {
+    assertEquals(UnknownTermParser.Kind.PREFIXED, UnknownTermParser.parse("dwc:fooBar", false).getKind());
+    assertEquals(UnknownTermParser.Kind.PREFIXED, UnknownTermParser.parse("unknown:fooBar", false).getKind());
+    assertEquals(UnknownTermParser.Kind.ABSOLUTE_URI, UnknownTermParser.parse("http://me.org/me", false).getKind());
+    assertEquals(UnknownTermParser.Kind.SCHEME, UnknownTermParser.parse("urn:foo:bar", false).getKind());
+    assertEquals(UnknownTermParser.Kind.BARE_NAME, UnknownTermParser.parse("fooBar", false).getKind());
+    assertEquals(UnknownTermParser.Kind.BARE_NAME, UnknownTermParser.parse("gbif.org/verbatimLabel", false).getKind());
+
+    UnknownTerm t = UnknownTermParser.parse("dwc:fooBar", true).getTerm();
+    assertEquals("http://unknown.org/dwc/fooBar", t.qualifiedName());
+    assertEquals("dwc:fooBar", t.prefixedName());
+    assertTrue(t.isClass());
+  }
+
+  @Test
+  public void testInvalid() {
+    for (String name : new String[]{"Hallo Tim", "dwc:foo bar", "a#b#c", "50%", "x:", ":x", "a_b:c", "a.b:#x",
+        "http://me.com/", "http://", "//host/x", "a[1]", "col\"1\"", "tab\tbed", "<html>", "{x}", "a|b"}) {
+      UnknownTermParser.Result r = UnknownTermParser.parse(name, false);
+      assertFalse(r.isValid(), name);
+      assertNull(r.getTerm(), name);
+      assertEquals(UnknownTermParser.Kind.INVALID, r.getKind(), name);
+      assertTrue(r.getError() != null && !r.getError().isEmpty(), name);
+      assertThrows(IllegalArgumentException.class, () -> UnknownTerm.build(name), name);
+      assertSameAsReference(name);
+    }
+    assertFalse(UnknownTermParser.parse(null, false).isValid());
+  }
+
+  @Test
+  public void testSameAsReference() {
+    for (String name : new String[]{"", "a", "me", "fooBar", "dwc:foo", "dwc:foo\n", "dwc:foo\r\n", "unknown:x",
+        "UNKNOWN:x", "dwc:a#b", "dwc:a+b.c_d-e", "http://example.org/a/b", "http://example.org/", "http://example.org",
+        "http:///x", "urn:a:b", "unknown:a:b", "x:a%20b", "a%20b", "http://[::1]/x", "http://a:b@host:99/x#f", "//",
+        "//?", "//#a", "a/b", "a#b", "#", "?", "http://ex.org/a#", "http://ex.org/a/", "été", "mailto:x@y",
+        "http://ex.org/%41", "catalog number", "dc:title", "q?x", "a?[1]", "x:[1]"}) {
+      assertSameAsReference(name);
+    }
+  }
+
+  @Test
+  public void testRandomNames() {
+    String[] atoms = {"a", "Z", "9", "dwc", ":", "/", "//", "#", "?", "%", "%2", "%20", " ", "+", ".", "-", "_", "@",
+        "[", "]", "\n", "\r", "é", " ", "\t", "\"", "<", "|", "~", "!", "*", "'", "(", "=", "&", ";", "$",
+        "http://", "unknown:", "urn:", "example.org", "host:8080", "..", "\\", "^"};
+    Random rnd = new Random(42);
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      StringBuilder sb = new StringBuilder();
+      for (int j = rnd.nextInt(6); j >= 0; j--) {
+        sb.append(atoms[rnd.nextInt(atoms.length)]);
+      }
+      names.add(sb.toString());
+    }
+    names.forEach(UnknownTermParserTest::assertSameAsReference);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UnknownTermRegistryTest {
+
+  private static Term create(UnknownTermRegistry reg, String name) {
+    return reg.computeIfAbsent(name, false, n -> UnknownTerm.build(n, false), Term::qualifiedName);
+  }
+
+  @Test
+  public void testUnbounded() {
+    UnknownTermRegistry reg = new UnknownTermRegistry(0);
+    for (int i = 0; i < 1000; i++) {
+      create(reg, "col" + i);
+    }
+    assertEquals(1000, reg.size());
+    assertEquals(0, reg.evictions());
+
+    Term t = reg.get("col7", false);
+    assertEquals("http://unknown.org/col7", t.qualifiedName());
+    assertSame(t, reg.get("http://unknown.org/col7", false));
+    // normalised keys
+    assertSame(t, reg.get("col7", false));
+    assertSame(t, reg.get("unknownorgcol7", false));
+    assertNull(reg.get("col7", true));
+  }
+
+  @Test
+  public void testEviction() {
+    UnknownTermRegistry reg = new UnknownTermRegistry(10);
+    // keep strong references to all terms so none gets garbage collected
+    List<Term> created = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      created.add(create(reg, "col" + i));
+    }
+    assertEquals(10, reg.size());
+    assertEquals(90, reg.evictions());
+
+    // evicted terms still in use are the same instances
+    for (int i = 0; i < 100; i++) {
+      assertSame(created.get(i), create(reg, "col" + i));
+    }
+    assertEquals(10, reg.size());
+  }
+
+  /**
+   * Recently used terms get a second chance and survive the eviction of others.
+   */
+  @Test
+  public void testRecentlyUsed() {
+    UnknownTermRegistry reg = new UnknownTermRegistry(4);
+    List<Term> created = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      created.add(create(reg, "col" + i));
+    }
+    long evicted = reg.evictions();
+    reg.get("col0", false);
+    created.add(create(reg, "col4"));
+    assertEquals(evicted + 1, reg.evictions());
+
+    // col1 was evicted instead of col0, both are still the same instances
+    reg.setCapacity(0);
+    assertSame(created.get(0), reg.get("col0", false));
+    assertSame(created.get(1), reg.get("col1", false));
+  }
+
+  @Test
+  public void testShrink() {
+    UnknownTermRegistry reg = new UnknownTermRegistry(0);
+    List<Term> created = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      created.add(create(reg, "col" + i));
+    }
+    reg.setCapacity(5);
+    assertEquals(5, reg.size());
+    assertTrue(reg.evictions() >= 45);
+    assertSame(created.get(3), create(reg, "col3"));
+  }
+
+  /**
+   * Evicted terms are collected concurrently with requests for them, which must still never return null.
+   */
+  @Test
+  public void testCollectedWhileRequested() throws Exception {
+    UnknownTermRegistry reg = new UnknownTermRegistry(2);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int n = 0; n < 4; n++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 20_000; i++) {
+            Term t = create(reg, "col" + (i % 50));
+            assertNotNull(t);
+            assertEquals("col" + (i % 50), t.simpleName());
+            if (i % 5_000 == 0) {
+              System.gc();
+            }
+          }
+        }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
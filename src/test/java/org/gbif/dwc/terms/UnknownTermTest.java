@@ -15,6 +15,10 @@
  */
 package org.gbif.dwc.terms;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.net.URI;
 import java.util.HashSet;
 import java.util.Set;
@@ -23,6 +27,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class UnknownTermTest {
@@ -45,6 +51,48 @@ public class UnknownTermTest {
     assertEquals(URI.create("http://unknown.org"), UnknownTerm.build("me").namespace());
   }
 
+  @Test
+  public void testSerialization() throws Exception {
+    UnknownTerm t = UnknownTerm.build("gbif:verbatimLabel", true);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(t);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      UnknownTerm t2 = (UnknownTerm) in.readObject();
+      assertEquals(t, t2);
+      assertEquals(t.hashCode(), t2.hashCode());
+      assertEquals(t.qualifiedName(), t2.qualifiedName());
+      assertEquals(t.prefixedName(), t2.prefixedName());
+      assertSame(t, t2);
+    }
+  }
+
+  @Test
+  public void testCanonicalInstances() {
+    UnknownTerm t = UnknownTerm.build("http://me.org/canonical");
+    assertSame(t, UnknownTerm.build("http://me.org/canonical"));
+    assertSame(t, UnknownTerm.build("http://me.org/canonical", "canonical"));
+    assertSame(t.namespace(), t.namespace());
+    assertSame(UnknownTerm.build("canonical"), UnknownTerm.build("unknown:canonical"));
+    assertSame(UnknownTerm.build("gbif:canonical"), UnknownTerm.build("gbif:canonical"));
+
+    // the class flag and prefix are kept distinct
+    assertNotSame(t, UnknownTerm.build("http://me.org/canonical", true));
+    assertSame(UnknownTerm.build("http://me.org/canonical", true), UnknownTerm.build("http://me.org/canonical", true));
+    UnknownTerm prefixed = UnknownTerm.build("dwc:canonical");
+    UnknownTerm qualified = UnknownTerm.build("http://unknown.org/dwc/canonical");
+    assertEquals(prefixed, qualified);
+    assertEquals("dwc:canonical", prefixed.prefixedName());
+    assertEquals("unknown:canonical", qualified.prefixedName());
+
+    // constructors always create new instances
+    UnknownTerm created = new UnknownTerm(URI.create("http://me.org/canonical"), false);
+    assertNotSame(t, created);
+    assertEquals(t, created);
+    assertSame(t, UnknownTerm.intern(created));
+  }
+
   @Test
   public void testBuildError() {
     assertThrows(IllegalArgumentException.class, () -> UnknownTerm.build("http://me.com/"));
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 Global Biodiversity Information Facility (GBIF)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gbif.dwc.terms;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Utf8NamesTest {
+
+  private static void assertDecodes(String str) {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buf = ByteBuffer.wrap(bytes);
+    assertEquals(str.hashCode(), Utf8Names.hash(buf, 0, bytes.length), "Bad hash for " + str);
+    assertTrue(Utf8Names.equals(buf, 0, bytes.length, str), "Not equal " + str);
+    assertFalse(Utf8Names.equals(buf, 0, bytes.length, str + "x"));
+    if (bytes.length > 0) {
+      assertFalse(Utf8Names.equals(buf, 0, bytes.length - 1, str));
+    }
+  }
+
+  @Test
+  public void testEncodings() {
+    assertDecodes("");
+    assertDecodes("scientificName");
+    assertDecodes("http://rs.tdwg.org/dwc/terms/scientificName");
+    assertDecodes("m\u00f6rder");
+    assertDecodes("\u6f22\u5b57");
+    assertDecodes("emoji \ud83d\ude00 name");
+  }
+
+  @Test
+  public void testMalformed() {
+    // truncated two byte sequence and an overlong encoding of "/"
+    for (byte[] bytes : new byte[][]{{'a', (byte) 0xC3}, {(byte) 0xC0, (byte) 0xAF}}) {
+      String decoded = new String(bytes, StandardCharsets.UTF_8);
+      assertFalse(Utf8Names.equals(ByteBuffer.wrap(bytes), 0, bytes.length, decoded));
+    }
+  }
+}